@@ -9,6 +9,7 @@ plugins {
     alias(libs.plugins.changelog) // Gradle Changelog Plugin
     alias(libs.plugins.qodana) // Gradle Qodana Plugin
     alias(libs.plugins.kover) // Gradle Kover Plugin
+    alias(libs.plugins.jmh) // JMH benchmarks in src/jmh
 }
 
 group = providers.gradleProperty("pluginGroup").get()
@@ -37,7 +38,9 @@ repositories {
 dependencies {
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
     implementation("org.json:json:20240303")
+    implementation("com.google.code.gson:gson:2.10.1")
     implementation("com.github.spullara.mustache.java:compiler:0.9.14")
+    testImplementation(libs.junit)
 
     intellijPlatform {
         create(providers.gradleProperty("platformType"), providers.gradleProperty("platformVersion"))
@@ -106,6 +109,35 @@ sourceSets {
             srcDirs("src/main/resources")
         }
     }
+    // Replay server and time-to-render harness, run against main outside the IDE; shares the benchmark fixtures
+    create("perf") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+        resources {
+            srcDirs("src/jmh/resources")
+        }
+    }
+}
+
+// Benchmarks run outside the IDE, so the platform jars that main only compiles against are needed at runtime
+configurations {
+    named("jmhImplementation") {
+        extendsFrom(getByName("intellijPlatformClasspath"))
+    }
+    named("perfImplementation") {
+        extendsFrom(getByName("implementation"), getByName("intellijPlatformClasspath"))
+    }
+}
+
+// Run with ./gradlew jmh, or ./gradlew jmh -PjmhInclude=RenderBenchmark for a single class
+jmh {
+    jmhVersion = "1.37"
+    includes = listOf(providers.gradleProperty("jmhInclude").getOrElse(".*"))
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    profilers = listOf("gc")
+    resultFormat = "JSON"
 }
 
 tasks {
@@ -126,6 +158,25 @@ tasks {
         from(sourceSets.main.get().output)
     }
 
+    // ./gradlew replayServer --args="--port 8099 --latency 200 --error-rate 0.05"
+    register<JavaExec>("replayServer") {
+        group = "perf"
+        description = "Serves recorded V2EX API responses with injected latency, errors and rate limits"
+        classpath = sourceSets["perf"].runtimeClasspath
+        mainClass = "com.github.formattoday.v2viewer.perf.ReplayServer"
+        workingDir = projectDir
+    }
+
+    // ./gradlew timeToRender --args="--latency 0,50,200 --iterations 50"
+    register<JavaExec>("timeToRender") {
+        group = "perf"
+        description = "Measures list and topic time-to-render against the replay server"
+        classpath = sourceSets["perf"].runtimeClasspath
+        mainClass = "com.github.formattoday.v2viewer.perf.TimeToRenderHarness"
+        workingDir = projectDir
+        jvmArgs("-Djava.awt.headless=true")
+    }
+
     buildPlugin {
         duplicatesStrategy = DuplicatesStrategy.INCLUDE
         from("src/main/resources") {
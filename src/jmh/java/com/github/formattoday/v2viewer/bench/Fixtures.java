@@ -0,0 +1,63 @@
+package com.github.formattoday.v2viewer.bench;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基准测试数据
+ * 以 fixtures 目录下按 V2EX API 1.0 响应格式保存的样本为基础，
+ * 按需重复条目（改写ID）扩展到指定条数，用来比较不同负载大小下的开销
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * topics/show.json?id= 的响应（单个主题）
+     */
+    public static String topic() {
+        return load("topic.json");
+    }
+
+    /**
+     * hot.json / latest.json 格式的主题列表，共 size 条
+     */
+    public static String topicList(int size) {
+        return repeat(load("topics.json"), size);
+    }
+
+    /**
+     * replies/show.json 格式的回复列表，共 size 条
+     */
+    public static String replies(int size) {
+        return repeat(load("replies.json"), size);
+    }
+
+    private static String repeat(String body, int size) {
+        JSONArray samples = new JSONArray(body);
+        JSONArray result = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONObject item = new JSONObject(samples.getJSONObject(i % samples.length()).toString());
+            item.put("id", item.getInt("id") + i);
+            result.put(item);
+        }
+        return result.toString();
+    }
+
+    private static String load(String name) {
+        try (InputStream stream = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (stream == null) {
+                throw new IllegalStateException("测试数据不存在: " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
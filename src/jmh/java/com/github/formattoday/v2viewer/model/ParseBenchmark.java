@@ -0,0 +1,55 @@
+package com.github.formattoday.v2viewer.model;
+
+import com.github.formattoday.v2viewer.bench.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应解析基准
+ * 主题列表走流式解析，主题详情和回复页走 org.json；配合 -prof gc 查看每次解析的分配量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseBenchmark {
+
+    @Param({"10", "50", "200"})
+    int size;   // 列表条数 / 回复条数
+
+    private String listBody;
+    private String repliesBody;
+    private String topicBody;
+
+    @Setup
+    public void setUp() {
+        listBody = Fixtures.topicList(size);
+        repliesBody = Fixtures.replies(size);
+        topicBody = Fixtures.topic();
+    }
+
+    @Benchmark
+    public List<TopicSummary> topicList() throws IOException {
+        return TopicListParser.parse(new StringReader(listBody), (id, replies) -> null);
+    }
+
+    @Benchmark
+    public ReplyPage replyPage() {
+        return ReplyPage.parse(1, 1, repliesBody);
+    }
+
+    @Benchmark
+    public Topic topic() {
+        return Topic.parseShow(topicBody);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.formattoday.v2viewer.render;
+
+import com.github.formattoday.v2viewer.bench.Fixtures;
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 渲染基准：回复条目整理、模板执行和 HTMLDocument 构建
+ * 文档构建只解析 HTML 建立元素树，不创建视图，可以在无界面的环境中运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark {
+
+    @Param({"20", "100"})
+    int replies;    // 回复条数，100 对应连续阅读追加到第 5 页
+
+    private final V2EXSettings settings = new V2EXSettings();
+    private final TopicHtmlRenderer renderer = new TopicHtmlRenderer(() -> settings);
+    private final V2EXHtmlEditorKit kit = new V2EXHtmlEditorKit();
+    private Topic topic;
+    private ReplyPage page;
+    private int totalPages;
+    private String topicHtml;       // 只含主题的页面
+    private String pageHtml;        // 主题和全部回复
+    private String repliesHtml;     // 追加用的回复片段
+
+    @Setup
+    public void setUp() {
+        topic = Topic.parseShow(Fixtures.topic());
+        page = ReplyPage.parse(topic.id, 1, Fixtures.replies(replies));
+        totalPages = (replies + ReplyPage.PAGE_SIZE - 1) / ReplyPage.PAGE_SIZE;
+        topicHtml = renderer.renderTopic(topic, null, totalPages, 1, null);
+        pageHtml = renderer.renderTopic(topic, page, totalPages, 1, null);
+        repliesHtml = renderer.renderReplyPage(page, totalPages, 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> replyItems() {
+        return TopicHtmlRenderer.replyItems(page, 1);
+    }
+
+    @Benchmark
+    public String renderTopic() {
+        return renderer.renderTopic(topic, page, totalPages, 1, null);
+    }
+
+    @Benchmark
+    public String renderReplyPage() {
+        return renderer.renderReplyPage(page, totalPages, 1);
+    }
+
+    /**
+     * 整页 setText 的开销
+     */
+    @Benchmark
+    public HTMLDocument buildDocument() throws IOException, BadLocationException {
+        return read(pageHtml);
+    }
+
+    /**
+     * 连续阅读的开销：在只含主题的文档末尾插入回复片段（包含构建主题文档）
+     */
+    @Benchmark
+    public HTMLDocument appendReplies() throws IOException, BadLocationException {
+        HTMLDocument document = read(topicHtml);
+        Element body = findBody(document.getDefaultRootElement());
+        document.insertBeforeEnd(body, repliesHtml);
+        return document;
+    }
+
+    private HTMLDocument read(String html) throws IOException, BadLocationException {
+        HTMLDocument document = (HTMLDocument) kit.createDefaultDocument();
+        kit.read(new StringReader(html), document, 0);
+        return document;
+    }
+
+    private static Element findBody(Element element) {
+        if (element.getAttributes().getAttribute(StyleConstants.NameAttribute) == HTML.Tag.BODY) {
+            return element;
+        }
+        for (int i = 0; i < element.getElementCount(); i++) {
+            Element found = findBody(element.getElement(i));
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+}
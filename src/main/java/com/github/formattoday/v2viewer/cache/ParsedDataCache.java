@@ -0,0 +1,161 @@
+package com.github.formattoday.v2viewer.cache;
+
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.application.ApplicationManager;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 解析结果缓存
+ * 应用级 LRU 缓存，按 (主题ID, 页码) 保存已解析的主题和回复页，
+ * 条目按接口新鲜期过期，总大小受 V2EXSettings.memoryCacheSizeMb 限制
+ */
+public final class ParsedDataCache {
+    public static final int TOPIC_PAGE = 0;     // 主题详情使用的页码
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;    // 当前占用字节数
+
+    // 统计
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Key(int topicId, int page) {
+    }
+
+    private record Entry(Object value, long bytes, long expiresAt, int replies) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    /**
+     * 获取缓存实例
+     */
+    public static ParsedDataCache getInstance() {
+        return ApplicationManager.getApplication().getService(ParsedDataCache.class);
+    }
+
+    /**
+     * 获取主题详情，未命中或已过期时返回 null
+     */
+    public @Nullable Topic getTopic(int topicId) {
+        return (Topic) get(new Key(topicId, TOPIC_PAGE));
+    }
+
+    /**
+     * 获取回复页，未命中或已过期时返回 null
+     */
+    public @Nullable ReplyPage getReplyPage(int topicId, int page) {
+        return (ReplyPage) get(new Key(topicId, page));
+    }
+
+    /**
+     * 是否已缓存（不计入统计）
+     */
+    public synchronized boolean contains(int topicId, int page) {
+        Entry entry = entries.get(new Key(topicId, page));
+        return entry != null && !entry.isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * 缓存主题详情
+     */
+    public void putTopic(Topic topic) {
+        put(new Key(topic.id, TOPIC_PAGE), topic, topic.estimateBytes(),
+                V2EXSettings.getInstance().topicMaxAge, topic.replies);
+    }
+
+    /**
+     * 缓存回复页
+     */
+    public void putReplyPage(ReplyPage page) {
+        put(new Key(page.topicId, page.page), page, page.estimateBytes(),
+                V2EXSettings.getInstance().repliesMaxAge, -1);
+    }
+
+    /**
+     * 列表中的回复数与缓存的主题不一致时，丢弃该主题的所有缓存
+     */
+    public synchronized void invalidateIfRepliesChanged(int topicId, int replies) {
+        Entry topic = entries.get(new Key(topicId, TOPIC_PAGE));
+        if (topic != null && topic.replies() != replies) {
+            invalidateTopic(topicId);
+        }
+    }
+
+    /**
+     * 丢弃主题及其所有回复页
+     */
+    public synchronized void invalidateTopic(int topicId) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (entry.getKey().topicId() == topicId) {
+                totalBytes -= entry.getValue().bytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * 缓存统计
+     */
+    public synchronized String getStats() {
+        return String.format("条目 %d，占用 %d KB，命中 %d，未命中 %d，淘汰 %d",
+                entries.size(), totalBytes / 1024, hits, misses, evictions);
+    }
+
+    private synchronized Object get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            totalBytes -= entry.bytes();
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    private synchronized void put(Key key, Object value, long bytes, int ttlSeconds, int replies) {
+        long maxBytes = Math.max(1, V2EXSettings.getInstance().memoryCacheSizeMb) * 1024L * 1024L;
+        if (ttlSeconds <= 0 || bytes > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key,
+                new Entry(value, bytes, System.currentTimeMillis() + ttlSeconds * 1000L, replies));
+        if (previous != null) {
+            totalBytes -= previous.bytes();
+        }
+        totalBytes += bytes;
+
+        // 按访问顺序淘汰最久未用的条目
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            totalBytes -= eldest.bytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
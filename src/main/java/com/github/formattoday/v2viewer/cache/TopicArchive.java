@@ -0,0 +1,370 @@
+package com.github.formattoday.v2viewer.cache;
+
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 离线归档
+ * 把看过或预取过的主题和回复页原始响应压缩后追加写入单个日志文件，
+ * 内存中维护 (主题ID, 页码) 到文件偏移的索引，网络不可用时可从归档重新打开；
+ * 文件超过 V2EXSettings.archiveSizeMb 或失效记录过多时压实，只保留每个键最新的记录
+ *
+ * 记录格式：魔数、主题ID、页码、保存时间、原始长度、压缩长度、原始内容 CRC32，随后是压缩数据
+ */
+public final class TopicArchive implements Disposable {
+    private static final Logger LOG = Logger.getInstance(TopicArchive.class);
+
+    private static final int MAGIC = 0x56324558;    // "V2EX"
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_RAW_BYTES = 8 * 1024 * 1024;  // 单条记录上限，超过视为损坏
+    private static final long MIN_COMPACT_BYTES = 1024 * 1024; // 小于此大小时不因失效记录压实
+
+    private final Path file = getArchiveDirectory().resolve("topics.log");
+    private final ExecutorService writer =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("V2EX Topic Archive", 1);
+
+    private final Map<Key, Location> index = new HashMap<>();  // 每个键最新记录的位置
+    private RandomAccessFile data;  // 延迟打开
+    private long liveBytes;         // 索引中记录占用的字节数
+    private boolean disposed;       // 已关闭，不再接受写入
+
+    // 统计
+    private long reads;
+    private long writes;
+    private long compactions;
+
+    private record Key(int topicId, int page) {
+    }
+
+    private record Location(long offset, int length, long savedAt, int rawLength, int rawCrc) {
+    }
+
+    /**
+     * 获取归档实例
+     */
+    public static TopicArchive getInstance() {
+        return ApplicationManager.getApplication().getService(TopicArchive.class);
+    }
+
+    /**
+     * 归档目录
+     */
+    public static Path getArchiveDirectory() {
+        return Path.of(PathManager.getSystemPath(), "v2ex-viewer", "archive");
+    }
+
+    /**
+     * 在后台追加一条记录，内容与已归档的相同时跳过；关闭后调用（如仍在进行的解析）直接丢弃
+     *
+     * @param page 回复页码，主题详情使用 ParsedDataCache.TOPIC_PAGE
+     * @param body 接口原始响应
+     */
+    public void put(int topicId, int page, String body) {
+        if (!V2EXSettings.getInstance().archiveEnabled) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                try {
+                    append(new Key(topicId, page), body.getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    LOG.warn("写入离线归档失败", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.debug("离线归档已关闭，丢弃主题 " + topicId + " 第 " + page + " 页");
+        }
+    }
+
+    /**
+     * 读取归档的原始响应，不存在或记录损坏时返回 null
+     */
+    public synchronized @Nullable String get(int topicId, int page) {
+        Key key = new Key(topicId, page);
+        try {
+            ensureOpen();
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            byte[] raw = readRecord(location);
+            if (raw == null) {
+                LOG.warn("离线归档记录损坏: " + key);
+                remove(key);
+                return null;
+            }
+            reads++;
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("读取离线归档失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 是否有归档
+     */
+    public synchronized boolean contains(int topicId, int page) {
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            return false;
+        }
+        return index.containsKey(new Key(topicId, page));
+    }
+
+    /**
+     * 归档统计
+     */
+    public synchronized String getStats() {
+        long fileBytes = data == null ? 0 : fileLength();
+        return String.format("记录 %d，有效 %d KB，文件 %d KB，读取 %d，写入 %d，压实 %d",
+                index.size(), liveBytes / 1024, fileBytes / 1024, reads, writes, compactions);
+    }
+
+    /**
+     * 清空归档
+     */
+    public synchronized void clear() {
+        try {
+            ensureOpen();
+            data.setLength(0);
+            index.clear();
+            liveBytes = 0;
+        } catch (IOException e) {
+            LOG.warn("清空离线归档失败", e);
+        }
+    }
+
+    private synchronized void append(Key key, byte[] raw) throws IOException {
+        if (disposed) {
+            return;
+        }
+        ensureOpen();
+        int rawCrc = crc(raw);
+        Location existing = index.get(key);
+        if (existing != null && existing.rawLength() == raw.length && existing.rawCrc() == rawCrc) {
+            return;
+        }
+
+        byte[] compressed = deflate(raw);
+        long offset = data.length();
+        long savedAt = System.currentTimeMillis();
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + compressed.length);
+        record.putInt(MAGIC).putInt(key.topicId()).putInt(key.page()).putLong(savedAt)
+                .putInt(raw.length).putInt(compressed.length).putInt(rawCrc).put(compressed);
+        data.seek(offset);
+        data.write(record.array());
+        writes++;
+
+        Location previous = index.put(key, new Location(offset, record.capacity(), savedAt, raw.length, rawCrc));
+        if (previous != null) {
+            liveBytes -= previous.length();
+        }
+        liveBytes += record.capacity();
+
+        long fileBytes = data.length();
+        long maxBytes = maxBytes();
+        if (fileBytes > maxBytes) {
+            compact(Math.min(liveBytes, maxBytes * 3 / 4));
+        } else if (fileBytes > MIN_COMPACT_BYTES && fileBytes - liveBytes > liveBytes) {
+            compact(liveBytes);
+        }
+    }
+
+    /**
+     * 压实：只复制每个键最新的记录，超出预算时丢弃最旧的记录
+     * 文件超过上限时预算为上限的四分之三，留出余量，避免接近上限后每次覆盖写入都重写整个文件
+     *
+     * @param budget 压实后文件的最大字节数
+     */
+    private void compact(long budget) throws IOException {
+        List<Map.Entry<Key, Location>> entries = new ArrayList<>(index.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Key, Location> entry) -> entry.getValue().savedAt())
+                .reversed());
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<Key, Location> compacted = new HashMap<>();
+        long written = 0;
+        try (RandomAccessFile out = new RandomAccessFile(tmp.toFile(), "rw")) {
+            out.setLength(0);
+            for (Map.Entry<Key, Location> entry : entries) {
+                Location location = entry.getValue();
+                if (written + location.length() > budget) {
+                    continue;
+                }
+                byte[] record = new byte[location.length()];
+                data.seek(location.offset());
+                data.readFully(record);
+                out.write(record);
+                compacted.put(entry.getKey(), new Location(written, location.length(), location.savedAt(),
+                        location.rawLength(), location.rawCrc()));
+                written += location.length();
+            }
+        }
+
+        long before = data.length();
+        data.close();
+        data = null;
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        data = new RandomAccessFile(file.toFile(), "rw");
+        index.clear();
+        index.putAll(compacted);
+        liveBytes = written;
+        compactions++;
+        LOG.info(String.format("离线归档压实: %d KB -> %d KB，保留 %d 条", before / 1024, written / 1024, compacted.size()));
+    }
+
+    /**
+     * 打开归档文件并扫描记录头重建索引，尾部不完整的记录会被截断
+     */
+    private void ensureOpen() throws IOException {
+        if (data != null) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        data = new RandomAccessFile(file.toFile(), "rw");
+
+        long length = data.length();
+        long offset = 0;
+        byte[] header = new byte[HEADER_BYTES];
+        while (offset + HEADER_BYTES <= length) {
+            data.seek(offset);
+            data.readFully(header);
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            int magic = buffer.getInt();
+            Key key = new Key(buffer.getInt(), buffer.getInt());
+            long savedAt = buffer.getLong();
+            int rawLength = buffer.getInt();
+            int compressedLength = buffer.getInt();
+            int rawCrc = buffer.getInt();
+            int recordLength = HEADER_BYTES + compressedLength;
+            if (magic != MAGIC || rawLength < 0 || rawLength > MAX_RAW_BYTES || compressedLength < 0
+                    || offset + recordLength > length) {
+                break;
+            }
+
+            Location previous = index.put(key, new Location(offset, recordLength, savedAt, rawLength, rawCrc));
+            if (previous != null) {
+                liveBytes -= previous.length();
+            }
+            liveBytes += recordLength;
+            offset += recordLength;
+        }
+
+        if (offset < length) {
+            LOG.warn("离线归档尾部 " + (length - offset) + " 字节不完整，已截断");
+            data.setLength(offset);
+        }
+    }
+
+    /**
+     * 读取并解压一条记录，校验失败时返回 null
+     */
+    private byte[] readRecord(Location location) throws IOException {
+        byte[] compressed = new byte[location.length() - HEADER_BYTES];
+        data.seek(location.offset() + HEADER_BYTES);
+        data.readFully(compressed);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[location.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            return read == raw.length && crc(raw) == location.rawCrc() ? raw : null;
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void remove(Key key) {
+        Location removed = index.remove(key);
+        if (removed != null) {
+            liveBytes -= removed.length();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static long maxBytes() {
+        return Math.max(1, V2EXSettings.getInstance().archiveSizeMb) * 1024L * 1024L;
+    }
+
+    private long fileLength() {
+        try {
+            return data.length();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        writer.shutdown();
+        synchronized (this) {
+            disposed = true;
+            if (data != null) {
+                try {
+                    data.close();
+                } catch (IOException e) {
+                    LOG.warn("关闭离线归档失败", e);
+                }
+                data = null;
+            }
+        }
+    }
+}
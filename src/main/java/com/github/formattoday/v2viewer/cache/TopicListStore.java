@@ -0,0 +1,108 @@
+package com.github.formattoday.v2viewer.cache;
+
+import com.github.formattoday.v2viewer.model.TopicListParser;
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 主题列表快照
+ * 每个节点最近一次成功加载的列表保存为一个小 JSON 文件，面板创建或切换节点时先显示快照再刷新；
+ * 文件格式与列表接口相同（只保留投影字段），读取复用 TopicListParser
+ */
+public final class TopicListStore {
+    private static final Logger LOG = Logger.getInstance(TopicListStore.class);
+
+    private final ExecutorService writer =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("V2EX Topic List Store", 1);
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();  // 已读取或保存的快照
+
+    /**
+     * 列表快照
+     *
+     * @param topics  主题列表
+     * @param savedAt 保存时间（毫秒）
+     */
+    public record Snapshot(List<TopicSummary> topics, long savedAt) {
+    }
+
+    /**
+     * 获取实例
+     */
+    public static TopicListStore getInstance() {
+        return ApplicationManager.getApplication().getService(TopicListStore.class);
+    }
+
+    /**
+     * 读取节点的列表快照，没有时返回 null；同一会话内只读一次磁盘
+     */
+    public @Nullable Snapshot load(String node, TopicSummary.DetailLoader detailLoader) {
+        Snapshot cached = snapshots.get(node);
+        if (cached != null) {
+            return cached;
+        }
+        Path path = pathFor(node);
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<TopicSummary> topics = TopicListParser.parse(reader, detailLoader);
+            Snapshot snapshot = new Snapshot(topics, Files.getLastModifiedTime(path).toMillis());
+            snapshots.putIfAbsent(node, snapshot);
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("读取列表快照失败: " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 在后台保存节点的列表快照
+     */
+    public void save(String node, List<TopicSummary> topics) {
+        List<TopicSummary> copy = List.copyOf(topics);
+        snapshots.put(node, new Snapshot(copy, System.currentTimeMillis()));
+        writer.execute(() -> write(node, copy));
+    }
+
+    private static void write(String node, List<TopicSummary> topics) {
+        JSONArray array = new JSONArray();
+        for (TopicSummary topic : topics) {
+            array.put(new JSONObject()
+                    .put("id", topic.id)
+                    .put("title", topic.title)
+                    .put("replies", topic.replies)
+                    .put("last_modified", topic.lastModified));
+        }
+
+        Path path = pathFor(node);
+        try {
+            Files.createDirectories(path.getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.writeString(tmp, array.toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("保存列表快照失败: " + path, e);
+        }
+    }
+
+    private static Path pathFor(String node) {
+        return Path.of(PathManager.getSystemPath(), "v2ex-viewer", "lists", node + ".json");
+    }
+}
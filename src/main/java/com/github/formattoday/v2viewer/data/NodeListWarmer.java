@@ -0,0 +1,158 @@
+package com.github.formattoday.v2viewer.data;
+
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.github.formattoday.v2viewer.network.RequestScheduler;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.diagnostic.Logger;
+
+import javax.swing.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 节点列表预热
+ * 有面板可见时并行加载所有节点的主题列表，之后按 V2EXSettings.warmupIntervalMinutes 定时刷新，
+ * 结果由 V2EXDataService 保存并通知各面板；并发数有上限，并记录每个节点的加载耗时。
+ * 所有状态只在 EDT 上访问
+ */
+final class NodeListWarmer {
+    private static final Logger LOG = Logger.getInstance(NodeListWarmer.class);
+
+    static final List<String> NODES = List.of("hot", "tech", "creative", "play", "hot_topics", "all");
+
+    private final V2EXDataService service;
+    private final Timer timer;
+
+    private final Deque<String> pending = new ArrayDeque<>();                   // 本轮待加载的节点
+    private final Map<String, CompletableFuture<?>> inFlight = new HashMap<>(); // 本轮进行中的加载
+    private final List<String> roundLatencies = new ArrayList<>();              // 本轮各节点耗时
+    private RequestScheduler.Priority roundPriority;
+    private long roundStart;     // 本轮开始时间（纳秒）
+    private int roundFailures;   // 本轮失败数
+    private boolean started;     // 有面板可见时为 true
+
+    NodeListWarmer(V2EXDataService service) {
+        this.service = service;
+        this.timer = new Timer(intervalMillis(), e -> warmAll(RequestScheduler.Priority.POLL));
+        this.timer.setRepeats(true);
+    }
+
+    /**
+     * 开始预热：启用时立即预热一轮并开始定时刷新
+     */
+    void start() {
+        started = true;
+        if (!V2EXSettings.getInstance().warmAllNodes) {
+            return;
+        }
+        warmAll(RequestScheduler.Priority.PREFETCH);
+        timer.setInitialDelay(intervalMillis());
+        timer.setDelay(intervalMillis());
+        timer.restart();
+    }
+
+    /**
+     * 停止定时刷新并取消进行中的加载，已有结果保留
+     */
+    void stop() {
+        started = false;
+        cancelRound();
+    }
+
+    /**
+     * 设置变更后按新的开关和间隔重新调度
+     */
+    void settingsChanged() {
+        if (!started) {
+            return;
+        }
+        if (!V2EXSettings.getInstance().warmAllNodes) {
+            cancelRound();
+            return;
+        }
+        if (!timer.isRunning()) {
+            start();
+        } else if (timer.getDelay() != intervalMillis()) {
+            timer.setInitialDelay(intervalMillis());
+            timer.setDelay(intervalMillis());
+            timer.restart();
+        }
+    }
+
+    private void cancelRound() {
+        timer.stop();
+        pending.clear();
+        inFlight.values().forEach(future -> future.cancel(true));
+        inFlight.clear();
+    }
+
+    /**
+     * 加载所有节点，上一轮未结束时跳过
+     */
+    private void warmAll(RequestScheduler.Priority priority) {
+        if (V2EXSettings.getInstance().apiToken.isEmpty() || !pending.isEmpty() || !inFlight.isEmpty()) {
+            return;
+        }
+        pending.addAll(NODES);
+        roundPriority = priority;
+        roundStart = System.nanoTime();
+        roundLatencies.clear();
+        roundFailures = 0;
+        pump();
+    }
+
+    /**
+     * 在并发上限内派发待加载的节点
+     */
+    private void pump() {
+        int maxConcurrent = Math.max(1, V2EXSettings.getInstance().warmupConcurrency);
+        while (inFlight.size() < maxConcurrent && !pending.isEmpty()) {
+            warm(pending.poll());
+        }
+    }
+
+    private void warm(String node) {
+        long start = System.nanoTime();
+        // 与面板发起的同一列表请求共用合并键，切换到正在预热的节点时不会重复请求
+        CompletableFuture<List<TopicSummary>> future = service.refreshList(node, roundPriority, false);
+        inFlight.put(node, future);
+        future.whenComplete((topics, error) -> {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            SwingUtilities.invokeLater(() -> {
+                if (inFlight.get(node) != future) {
+                    return;
+                }
+                inFlight.remove(node);
+                if (error == null && !topics.isEmpty()) {
+                    roundLatencies.add(node + " " + latencyMs + " ms");
+                } else {
+                    roundFailures++;
+                    LOG.debug("预热节点列表失败: " + node, error);
+                }
+                pump();
+                if (inFlight.isEmpty() && pending.isEmpty()) {
+                    roundFinished();
+                }
+            });
+        });
+    }
+
+    private void roundFinished() {
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+        String summary = String.format("节点列表预热（%s）: 成功 %d，失败 %d，总耗时 %d ms；%s",
+                roundPriority, roundLatencies.size(), roundFailures, totalMs, String.join("，", roundLatencies));
+        LOG.info(summary);
+        DebugTrace.getInstance().record("list", () -> summary);
+    }
+
+    private static int intervalMillis() {
+        return (int) TimeUnit.MINUTES.toMillis(Math.max(1, V2EXSettings.getInstance().warmupIntervalMinutes));
+    }
+}
@@ -0,0 +1,404 @@
+package com.github.formattoday.v2viewer.data;
+
+import com.github.formattoday.v2viewer.cache.ParsedDataCache;
+import com.github.formattoday.v2viewer.cache.TopicArchive;
+import com.github.formattoday.v2viewer.cache.TopicListStore;
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.model.TopicListParser;
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.github.formattoday.v2viewer.network.HttpStatusException;
+import com.github.formattoday.v2viewer.network.RequestScheduler;
+import com.github.formattoday.v2viewer.network.V2EXApi;
+import com.github.formattoday.v2viewer.network.V2EXHttpClientService;
+import com.github.formattoday.v2viewer.network.V2EXRestApi;
+import com.github.formattoday.v2viewer.search.SearchIndex;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.github.formattoday.v2viewer.util.AllocationMeter;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import okhttp3.Request;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * V2EX 数据服务
+ * 应用级共享的主题列表、主题详情和回复加载入口。所有项目的面板都经由此处请求，
+ * 每个节点最新的列表保存在内存中并以事件通知各面板，打开多个项目窗口时同一份数据只请求一次；
+ * 面板只是订阅者，可见时登记，至少有一个可见面板时才进行节点列表预热
+ */
+public final class V2EXDataService implements V2EXSettings.SettingsChangeListener, Disposable {
+    private static final Logger LOG = Logger.getInstance(V2EXDataService.class);
+
+    private final Map<String, NodeList> lists = new ConcurrentHashMap<>();  // 每个节点最新的列表
+    private final List<ListListener> listeners = new CopyOnWriteArrayList<>();
+    private final Set<Object> activeViewers = new HashSet<>();  // 可见的面板，只在 EDT 上访问
+    private final NodeListWarmer warmer = new NodeListWarmer(this);
+    private volatile V2EXApi api = createApi();  // 按设置中的接口地址构建请求
+
+    // 统计
+    private final AtomicLong listLoads = new AtomicLong();   // 列表请求数
+    private final AtomicLong listShared = new AtomicLong();  // 直接使用内存中列表的次数
+
+    /**
+     * 节点列表
+     *
+     * @param node      节点
+     * @param topics    主题列表（不可变）
+     * @param loadedAt  加载完成时间（毫秒）
+     * @param latencyMs 加载耗时（毫秒）
+     */
+    public record NodeList(String node, List<TopicSummary> topics, long loadedAt, long latencyMs) {
+    }
+
+    /**
+     * 列表更新监听器，在 EDT 上回调
+     */
+    public interface ListListener {
+        void listUpdated(NodeList list);
+    }
+
+    public V2EXDataService() {
+        V2EXSettings.getInstance().addChangeListener(this);
+    }
+
+    /**
+     * 获取实例
+     */
+    public static V2EXDataService getInstance() {
+        return ApplicationManager.getApplication().getService(V2EXDataService.class);
+    }
+
+    /**
+     * 当前使用的 API
+     */
+    public V2EXApi getApi() {
+        return api;
+    }
+
+    /**
+     * 按设置中的接口地址创建 API，地址无效时使用默认地址
+     */
+    private static V2EXApi createApi() {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        try {
+            return new V2EXRestApi(settings.apiBaseUrl, () -> V2EXSettings.getInstance().apiToken);
+        } catch (IllegalArgumentException e) {
+            LOG.warn(e.getMessage() + "，改用默认地址");
+            return new V2EXRestApi(V2EXApi.DEFAULT_BASE_URL, () -> V2EXSettings.getInstance().apiToken);
+        }
+    }
+
+    /**
+     * 节点列表的新鲜期（秒）
+     */
+    public static int listMaxAgeSeconds(String node) {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        return switch (node) {
+            case "tech", "creative", "play" -> settings.nodeListMaxAge;
+            case "all" -> settings.latestListMaxAge;
+            default -> settings.hotListMaxAge;
+        };
+    }
+
+    /**
+     * 内存中仍在新鲜期内的节点列表，没有时返回 null
+     */
+    public @Nullable NodeList getFreshList(String node) {
+        NodeList list = lists.get(node);
+        if (list == null || System.currentTimeMillis() - list.loadedAt() > listMaxAgeSeconds(node) * 1000L) {
+            return null;
+        }
+        listShared.incrementAndGet();
+        return list;
+    }
+
+    /**
+     * 在后台读取节点上次保存的列表快照，没有快照时结果为 null
+     */
+    public CompletableFuture<TopicListStore.Snapshot> loadSnapshot(String node) {
+        return CompletableFuture.supplyAsync(() -> TopicListStore.getInstance().load(node, this::loadTopicDetail),
+                AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * 加载节点列表，成功且不为空时更新内存中的列表、保存快照并通知所有面板
+     * 发布在共享的解析中进行，合并到同一请求的多个调用方只保存和通知一次；
+     * 不同节点可能对应同一接口地址（如 hot 和 hot_topics），合并键包含节点，各节点分别发布
+     *
+     * @param forceRevalidate 强制重新验证 HTTP 缓存，此时不与进行中的同一请求合并
+     * @return 取消只影响本次调用，其他调用方仍在等待时请求继续进行
+     */
+    public CompletableFuture<List<TopicSummary>> refreshList(String node, RequestScheduler.Priority priority,
+                                                             boolean forceRevalidate) {
+        Request request = api.topicList(node, forceRevalidate);
+        String apiUrl = request.url().toString();
+
+        long start = System.nanoTime();
+        String flightKey = forceRevalidate ? null : "list:" + node + ":" + apiUrl;
+        CompletableFuture<List<TopicSummary>> load = V2EXHttpClientService.getInstance()
+                .fetchBody(request, priority, flightKey, body -> {
+                    listLoads.incrementAndGet();
+                    // 直接从响应流解析，只保留列表需要的字段
+                    long allocatedBefore = AllocationMeter.currentThreadAllocatedBytes();
+                    long parseStart = System.nanoTime();
+                    List<TopicSummary> topics = TopicListParser.parse(body.charStream(), this::loadTopicDetail);
+                    long parseMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - parseStart);
+                    long allocatedKb = (AllocationMeter.currentThreadAllocatedBytes() - allocatedBefore) / 1024;
+                    LOG.debug(String.format("主题列表解析: %d 条，耗时 %d ms，分配 %d KB",
+                            topics.size(), parseMs, allocatedKb));
+                    DebugTrace.getInstance().record("list", () -> String.format("%s 解析 %d 条，%d ms，%d KB",
+                            apiUrl, topics.size(), parseMs, allocatedKb));
+                    if (!topics.isEmpty()) {
+                        publish(node, topics, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    return topics;
+                });
+        load.whenComplete((topics, error) -> {
+            if (error != null && !load.isCancelled()) {
+                DebugTrace.getInstance().record("list", () -> apiUrl + " 加载异常: " + error);
+            }
+        });
+        return load;
+    }
+
+    private void publish(String node, List<TopicSummary> topics, long latencyMs) {
+        ParsedDataCache cache = ParsedDataCache.getInstance();
+        for (TopicSummary topic : topics) {
+            cache.invalidateIfRepliesChanged(topic.id, topic.replies);
+        }
+        NodeList list = new NodeList(node, List.copyOf(topics), System.currentTimeMillis(), latencyMs);
+        lists.put(node, list);
+        TopicListStore.getInstance().save(node, list.topics());
+        SwingUtilities.invokeLater(() -> {
+            for (ListListener listener : listeners) {
+                listener.listUpdated(list);
+            }
+        });
+    }
+
+    /**
+     * 列表项的主题详情：依次使用内存缓存、离线归档，都没有时才请求网络
+     * 归档只在回复数与列表一致时使用，回复数变化说明归档的内容已过期
+     * 取消返回的 future 会取消进行中的网络请求
+     */
+    private CompletableFuture<Topic> loadTopicDetail(int topicId, int replies) {
+        Topic cached = ParsedDataCache.getInstance().getTopic(topicId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Topic> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<Topic>> network = new AtomicReference<>();
+        result.whenComplete((topic, error) -> {
+            CompletableFuture<Topic> request = network.get();
+            if (result.isCancelled() && request != null) {
+                request.cancel(true);
+            }
+        });
+        CompletableFuture.supplyAsync(() -> readArchivedTopic(topicId, replies), AppExecutorUtil.getAppExecutorService())
+                .whenComplete((archived, error) -> {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    if (archived != null) {
+                        result.complete(archived);
+                        return;
+                    }
+                    CompletableFuture<Topic> request = fetchTopic(topicId, RequestScheduler.Priority.USER);
+                    network.set(request);
+                    // 在登记请求之前已取消时，上面的回调看不到请求，在此补上取消
+                    if (result.isCancelled()) {
+                        request.cancel(true);
+                        return;
+                    }
+                    request.whenComplete((topic, fetchError) -> {
+                        if (fetchError != null) {
+                            result.completeExceptionally(fetchError);
+                        } else {
+                            result.complete(topic);
+                        }
+                    });
+                });
+        return result;
+    }
+
+    /**
+     * 读取归档的主题详情，没有归档或回复数不一致时返回 null；可用的归档写入内存缓存
+     */
+    private static @Nullable Topic readArchivedTopic(int topicId, int replies) {
+        String body = TopicArchive.getInstance().get(topicId, ParsedDataCache.TOPIC_PAGE);
+        if (body == null) {
+            return null;
+        }
+        try {
+            Topic topic = Topic.parseShow(body);
+            if (topic == null || topic.replies != replies) {
+                return null;
+            }
+            ParsedDataCache.getInstance().putTopic(topic);
+            DebugTrace.getInstance().record("archive", () -> "主题 " + topicId + " 详情读取归档");
+            return topic;
+        } catch (RuntimeException e) {
+            LOG.warn("解析归档的主题 " + topicId + " 失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 请求主题详情，解析结果写入内存缓存、离线归档和搜索索引，网络不可用时读取归档
+     * 同一主题的并发请求（列表详情、预取、打开主题）合并为一次
+     */
+    public CompletableFuture<Topic> fetchTopic(int topicId, RequestScheduler.Priority priority) {
+        Request request = api.topic(topicId);
+        String flightKey = "topic:" + topicId;
+        V2EXHttpClientService client = V2EXHttpClientService.getInstance();
+        CompletableFuture<Topic> network = client.fetch(request, priority, flightKey, body -> {
+            Topic topic = Topic.parseShow(body);
+            if (topic != null) {
+                ParsedDataCache.getInstance().putTopic(topic);
+                TopicArchive.getInstance().put(topicId, ParsedDataCache.TOPIC_PAGE, body);
+                SearchIndex.getInstance().addTopic(topic);
+            }
+            return topic;
+        });
+        return withArchiveFallback(network, topicId, ParsedDataCache.TOPIC_PAGE, Topic::parseShow);
+    }
+
+    /**
+     * 请求一页回复，解析结果写入内存缓存、离线归档和搜索索引，网络不可用时读取归档
+     */
+    public CompletableFuture<ReplyPage> fetchReplies(int topicId, int page, RequestScheduler.Priority priority) {
+        Request request = api.replies(topicId, page);
+        String flightKey = "replies:" + topicId + ":" + page;
+        V2EXHttpClientService client = V2EXHttpClientService.getInstance();
+        CompletableFuture<ReplyPage> network = client.fetch(request, priority, flightKey, body -> {
+            ReplyPage replies = ReplyPage.parse(topicId, page, body);
+            ParsedDataCache.getInstance().putReplyPage(replies);
+            TopicArchive.getInstance().put(topicId, page, body);
+            SearchIndex.getInstance().addReplies(replies);
+            return replies;
+        });
+        return withArchiveFallback(network, topicId, page, body -> ReplyPage.parse(topicId, page, body));
+    }
+
+    /**
+     * 网络错误（非 HTTP 状态错误）时改用离线归档的内容，归档内容不写入内存缓存
+     * 取消返回的 future 会取消网络请求
+     */
+    private static <T> CompletableFuture<T> withArchiveFallback(CompletableFuture<T> network, int topicId, int page,
+                                                                Function<String, T> parser) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                network.cancel(true);
+            }
+        });
+        network.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            String archived = cause instanceof IOException && !(cause instanceof HttpStatusException)
+                    ? TopicArchive.getInstance().get(topicId, page)
+                    : null;
+            if (archived == null) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            try {
+                LOG.info(String.format("网络不可用，主题 %d 第 %d 页使用离线归档: %s", topicId, page, cause.getMessage()));
+                DebugTrace.getInstance().record("archive", () -> String.format("主题 %d 第 %d 页读取归档", topicId, page));
+                result.complete(parser.apply(archived));
+            } catch (Exception ex) {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 添加列表更新监听器
+     */
+    public void addListListener(ListListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 移除列表更新监听器
+     */
+    public void removeListListener(ListListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 登记面板的可见状态，至少有一个面板可见时进行节点列表预热，需在 EDT 上调用
+     * 面板变为可见时预先建立到接口主机的连接，长时间空闲后的第一个请求不必再等待握手
+     */
+    public void setViewerActive(Object viewer, boolean active) {
+        boolean wasActive = !activeViewers.isEmpty();
+        if (active) {
+            activeViewers.add(viewer);
+        } else {
+            activeViewers.remove(viewer);
+        }
+        V2EXHttpClientService http = V2EXHttpClientService.getInstance();
+        if (active) {
+            http.prewarm(api.baseUrl());
+        }
+        if (!wasActive && !activeViewers.isEmpty()) {
+            warmer.start();
+            http.getRoutes().start(api.baseUrl());
+        } else if (wasActive && activeViewers.isEmpty()) {
+            warmer.stop();
+            http.getRoutes().stop();
+        }
+    }
+
+    /**
+     * 设置变更回调，按新的接口地址重建 API，按新的预热开关和间隔重新调度，有可见面板时预热新的路由并更新路由检测地址
+     */
+    @Override
+    public void onSettingsChanged() {
+        api = createApi();
+        SwingUtilities.invokeLater(() -> {
+            warmer.settingsChanged();
+            if (!activeViewers.isEmpty()) {
+                V2EXHttpClientService http = V2EXHttpClientService.getInstance();
+                http.prewarm(api.baseUrl());
+                http.getRoutes().start(api.baseUrl());
+            }
+        });
+    }
+
+    /**
+     * 共享数据统计
+     */
+    public String getStats() {
+        return String.format("订阅 %d，可见 %d，内存列表 %d，列表请求 %d，直接共用 %d",
+                listeners.size(), activeViewers.size(), lists.size(), listLoads.get(), listShared.get());
+    }
+
+    @Override
+    public void dispose() {
+        V2EXSettings.getInstance().removeChangeListener(this);
+        SwingUtilities.invokeLater(warmer::stop);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.formattoday.v2viewer.diagnostics;
+
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.application.ApplicationManager;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 调试追踪
+ * 默认关闭；开启后按采样率把请求/响应摘要写入固定大小的内存环形缓冲区，
+ * 消息通过 Supplier 延迟构造，关闭时不产生任何字符串拼接
+ */
+public final class DebugTrace {
+    private static final int CAPACITY = 256;            // 环形缓冲区条目数
+    private static final int MAX_MESSAGE_LENGTH = 512;  // 单条消息截断长度
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private final Entry[] entries = new Entry[CAPACITY];
+    private int next;       // 下一个写入位置
+    private long recorded;  // 累计写入条数
+    private long dropped;   // 因采样丢弃的条数
+
+    private record Entry(LocalTime time, String category, String message) {
+    }
+
+    /**
+     * 获取实例
+     */
+    public static DebugTrace getInstance() {
+        return ApplicationManager.getApplication().getService(DebugTrace.class);
+    }
+
+    /**
+     * 是否开启追踪
+     */
+    public boolean isEnabled() {
+        return V2EXSettings.getInstance().debugTraceEnabled;
+    }
+
+    /**
+     * 记录一条追踪，未开启或未被采样时不会调用 message
+     */
+    public void record(String category, Supplier<String> message) {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        if (!settings.debugTraceEnabled) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextInt(100) >= settings.debugTraceSamplePercent) {
+            synchronized (this) {
+                dropped++;
+            }
+            return;
+        }
+        String text = message.get();
+        if (text.length() > MAX_MESSAGE_LENGTH) {
+            text = text.substring(0, MAX_MESSAGE_LENGTH) + "…(" + text.length() + ")";
+        }
+        Entry entry = new Entry(LocalTime.now(), category, text);
+        synchronized (this) {
+            entries[next] = entry;
+            next = (next + 1) % CAPACITY;
+            recorded++;
+        }
+    }
+
+    /**
+     * 按时间顺序导出缓冲区内容
+     */
+    public synchronized List<String> snapshot() {
+        List<String> lines = new ArrayList<>(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            Entry entry = entries[(next + i) % CAPACITY];
+            if (entry != null) {
+                lines.add(TIME_FORMAT.format(entry.time()) + " [" + entry.category() + "] " + entry.message());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * 追踪统计
+     */
+    public synchronized String getStats() {
+        return String.format("累计记录 %d，采样丢弃 %d，缓冲区容量 %d", recorded, dropped, CAPACITY);
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.formattoday.v2viewer.diagnostics;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调试追踪拦截器
+ * 记录每个请求的摘要：方法、地址、状态码、来源（缓存/网络）、耗时和响应长度
+ */
+public final class DebugTraceInterceptor implements Interceptor {
+
+    @Override
+    public @NotNull Response intercept(@NotNull Chain chain) throws IOException {
+        DebugTrace trace = DebugTrace.getInstance();
+        Request request = chain.request();
+        if (!trace.isEnabled()) {
+            return chain.proceed(request);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            trace.record("http", () -> String.format("%s %s -> %d %s, %d ms, %d bytes",
+                    request.method(), request.url(), response.code(), source(response), ms,
+                    response.body() != null ? response.body().contentLength() : -1));
+            return response;
+        } catch (IOException e) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            trace.record("http", () -> String.format("%s %s -> %s: %s, %d ms",
+                    request.method(), request.url(), e.getClass().getSimpleName(), e.getMessage(), ms));
+            throw e;
+        }
+    }
+
+    private static String source(Response response) {
+        if (response.networkResponse() == null) {
+            return "缓存";
+        }
+        return response.cacheResponse() != null ? "重新验证" : "网络";
+    }
+}
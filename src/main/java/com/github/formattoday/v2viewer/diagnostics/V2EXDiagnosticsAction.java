@@ -0,0 +1,99 @@
+package com.github.formattoday.v2viewer.diagnostics;
+
+import com.github.formattoday.v2viewer.cache.ParsedDataCache;
+import com.github.formattoday.v2viewer.cache.TopicArchive;
+import com.github.formattoday.v2viewer.data.V2EXDataService;
+import com.github.formattoday.v2viewer.network.V2EXHttpClientService;
+import com.github.formattoday.v2viewer.render.ImageLoader;
+import com.github.formattoday.v2viewer.search.SearchIndex;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * V2EX 诊断信息动作
+ * 显示连接池、缓存统计和调试追踪缓冲区
+ */
+public class V2EXDiagnosticsAction extends DumbAwareAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        new DiagnosticsDialog(e.getProject()).show();
+    }
+
+    /**
+     * 诊断信息收集
+     */
+    static String collect() {
+        V2EXHttpClientService http = V2EXHttpClientService.getInstance();
+        DebugTrace trace = DebugTrace.getInstance();
+
+        StringBuilder text = new StringBuilder();
+        text.append("连接池: 命中 ").append(http.getPoolHits())
+                .append(" / 未命中 ").append(http.getPoolMisses())
+                .append("，").append(http.getConnectionStats()).append('\n');
+        text.append("DNS 缓存: ").append(http.getDnsStats()).append('\n');
+        text.append("代理路由: ").append(http.getRouteStats()).append('\n');
+        text.append("请求调度: ").append(http.getScheduler().getStats())
+                .append("，").append(http.getScheduler().getBudgetText()).append('\n');
+        text.append("共享数据: ").append(V2EXDataService.getInstance().getStats()).append('\n');
+        text.append("搜索索引: ").append(SearchIndex.getInstance().getStats()).append('\n');
+        text.append("HTTP 缓存: ").append(http.getCacheStats()).append('\n');
+        text.append("解析缓存: ").append(ParsedDataCache.getInstance().getStats()).append('\n');
+        text.append("离线归档: ").append(TopicArchive.getInstance().getStats()).append('\n');
+        text.append("图片缓存: ").append(ImageLoader.getInstance().getStats()).append('\n');
+        text.append("调试追踪: ").append(trace.isEnabled() ? "已开启" : "未开启")
+                .append("，").append(trace.getStats()).append("\n\n");
+        for (String line : trace.snapshot()) {
+            text.append(line).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * 诊断信息对话框
+     */
+    private static class DiagnosticsDialog extends DialogWrapper {
+        private final JBTextArea textArea = new JBTextArea();
+
+        DiagnosticsDialog(@Nullable Project project) {
+            super(project);
+            setTitle("V2EX Viewer 诊断");
+            init();
+        }
+
+        @Override
+        protected @Nullable JComponent createCenterPanel() {
+            textArea.setEditable(false);
+            textArea.setText(collect());
+            textArea.setCaretPosition(0);
+
+            JPanel panel = new JPanel(new BorderLayout());
+            JBScrollPane scrollPane = new JBScrollPane(textArea);
+            scrollPane.setPreferredSize(new Dimension(JBUI.scale(720), JBUI.scale(420)));
+            panel.add(scrollPane, BorderLayout.CENTER);
+
+            JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            JButton refreshButton = new JButton("刷新");
+            refreshButton.addActionListener(e -> textArea.setText(collect()));
+            JButton clearButton = new JButton("清空追踪");
+            clearButton.addActionListener(e -> {
+                DebugTrace.getInstance().clear();
+                textArea.setText(collect());
+            });
+            buttons.add(refreshButton);
+            buttons.add(clearButton);
+            panel.add(buttons, BorderLayout.SOUTH);
+            return panel;
+        }
+    }
+}
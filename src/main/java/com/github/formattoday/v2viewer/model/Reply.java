@@ -0,0 +1,39 @@
+package com.github.formattoday.v2viewer.model;
+
+import org.json.JSONObject;
+
+/**
+ * 主题回复
+ */
+public final class Reply {
+    public final int id;                    // 回复ID
+    public final String author;             // 回复者用户名
+    public final String content;            // 纯文本内容
+    public final String contentRendered;    // 渲染后的 HTML 内容
+
+    public Reply(int id, String author, String content, String contentRendered) {
+        this.id = id;
+        this.author = author;
+        this.content = content;
+        this.contentRendered = contentRendered;
+    }
+
+    /**
+     * 从 JSON 对象解析
+     */
+    public static Reply fromJson(JSONObject json) {
+        return new Reply(
+                json.optInt("id"),
+                json.getJSONObject("member").getString("username"),
+                json.getString("content"),
+                json.optString("content_rendered", "")
+        );
+    }
+
+    /**
+     * 估算占用的内存字节数
+     */
+    public long estimateBytes() {
+        return 48 + 2L * (author.length() + content.length() + contentRendered.length());
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.formattoday.v2viewer.model;
+
+import org.json.JSONArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 主题的一页回复
+ */
+public final class ReplyPage {
+    public static final int PAGE_SIZE = 20;     // 每页回复数
+
+    public final int topicId;           // 主题ID
+    public final int page;              // 页码，从 1 开始
+    public final List<Reply> replies;   // 本页回复
+
+    public ReplyPage(int topicId, int page, List<Reply> replies) {
+        this.topicId = topicId;
+        this.page = page;
+        this.replies = Collections.unmodifiableList(replies);
+    }
+
+    /**
+     * 解析 replies/show.json 的响应
+     */
+    public static ReplyPage parse(int topicId, int page, String body) {
+        JSONArray array = new JSONArray(body);
+        List<Reply> replies = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            replies.add(Reply.fromJson(array.getJSONObject(i)));
+        }
+        return new ReplyPage(topicId, page, replies);
+    }
+
+    /**
+     * 估算占用的内存字节数
+     */
+    public long estimateBytes() {
+        long bytes = 32;
+        for (Reply reply : replies) {
+            bytes += reply.estimateBytes();
+        }
+        return bytes;
+    }
+}
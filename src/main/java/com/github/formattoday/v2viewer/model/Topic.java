@@ -0,0 +1,60 @@
+package com.github.formattoday.v2viewer.model;
+
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * 主题详情
+ */
+public final class Topic {
+    public final int id;                    // 主题ID
+    public final String title;              // 标题
+    public final String content;            // 纯文本内容
+    public final String contentRendered;    // 渲染后的 HTML 内容
+    public final String nodeTitle;          // 节点名称
+    public final String author;             // 作者用户名
+    public final int replies;               // 回复数
+
+    public Topic(int id, String title, String content, String contentRendered,
+                 String nodeTitle, String author, int replies) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.contentRendered = contentRendered;
+        this.nodeTitle = nodeTitle;
+        this.author = author;
+        this.replies = replies;
+    }
+
+    /**
+     * 从 JSON 对象解析
+     */
+    public static Topic fromJson(JSONObject json) {
+        return new Topic(
+                json.getInt("id"),
+                json.getString("title"),
+                json.optString("content", ""),
+                json.optString("content_rendered", ""),
+                json.getJSONObject("node").getString("title"),
+                json.getJSONObject("member").getString("username"),
+                json.getInt("replies")
+        );
+    }
+
+    /**
+     * 解析 topics/show.json?id= 的响应，未找到主题时返回 null
+     */
+    public static @Nullable Topic parseShow(String body) {
+        JSONArray topics = new JSONArray(body);
+        return topics.length() == 0 ? null : fromJson(topics.getJSONObject(0));
+    }
+
+    /**
+     * 估算占用的内存字节数
+     */
+    public long estimateBytes() {
+        return 64 + 2L * (title.length() + content.length() + contentRendered.length()
+                + nodeTitle.length() + author.length());
+    }
+}
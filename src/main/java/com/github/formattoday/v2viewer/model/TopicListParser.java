@@ -0,0 +1,66 @@
+package com.github.formattoday.v2viewer.model;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 主题列表流式解析器
+ * 直接从响应流读取，只构造 id/title/replies/last_modified，
+ * content、content_rendered 等字段被跳过而不分配字符串
+ */
+public final class TopicListParser {
+
+    private TopicListParser() {
+    }
+
+    /**
+     * 解析 hot.json / latest.json / show.json?node_name= 的响应
+     *
+     * @param reader       响应字符流
+     * @param detailLoader 主题详情加载器，供列表项懒加载使用
+     */
+    public static List<TopicSummary> parse(Reader reader,
+                                           TopicSummary.DetailLoader detailLoader) throws IOException {
+        List<TopicSummary> topics = new ArrayList<>();
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginArray();
+            while (json.hasNext()) {
+                topics.add(readTopic(json, detailLoader));
+            }
+            json.endArray();
+        }
+        return topics;
+    }
+
+    private static TopicSummary readTopic(JsonReader json,
+                                          TopicSummary.DetailLoader detailLoader) throws IOException {
+        int id = 0;
+        String title = "";
+        int replies = 0;
+        long lastModified = 0;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.NULL) {
+                json.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id" -> id = json.nextInt();
+                case "title" -> title = json.nextString();
+                case "replies" -> replies = json.nextInt();
+                case "last_modified" -> lastModified = json.nextLong();
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        return new TopicSummary(id, title, replies, lastModified, detailLoader);
+    }
+}
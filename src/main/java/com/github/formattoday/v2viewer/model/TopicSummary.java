@@ -0,0 +1,55 @@
+package com.github.formattoday.v2viewer.model;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 主题列表项
+ * 只保存列表需要的投影字段，完整内容通过 {@link #detail()} 按需加载
+ */
+public final class TopicSummary {
+    public final int id;                // 主题ID
+    public final String title;          // 主题标题
+    public final int replies;           // 回复数
+    public final long lastModified;     // 最后修改时间（秒）
+
+    private final DetailLoader detailLoader;                           // 详情加载器
+    private CompletableFuture<Topic> detail;                           // 已发起的详情加载
+
+    public TopicSummary(int id, String title, int replies, long lastModified,
+                        DetailLoader detailLoader) {
+        this.id = id;
+        this.title = title;
+        this.replies = replies;
+        this.lastModified = lastModified;
+        this.detailLoader = detailLoader;
+    }
+
+    /**
+     * 主题详情加载器
+     */
+    @FunctionalInterface
+    public interface DetailLoader {
+        /**
+         * @param replies 列表中的回复数，可据此判断已有的详情是否过期
+         */
+        CompletableFuture<Topic> load(int topicId, int replies);
+    }
+
+    /**
+     * 列表显示的字段是否相同
+     */
+    public boolean sameContent(TopicSummary other) {
+        return id == other.id && replies == other.replies && lastModified == other.lastModified
+                && title.equals(other.title);
+    }
+
+    /**
+     * 懒加载主题详情，失败后再次调用会重新加载
+     */
+    public synchronized CompletableFuture<Topic> detail() {
+        if (detail == null || detail.isCompletedExceptionally() || detail.isCancelled()) {
+            detail = detailLoader.load(id, replies);
+        }
+        return detail;
+    }
+}
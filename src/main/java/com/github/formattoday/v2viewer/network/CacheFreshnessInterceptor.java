@@ -0,0 +1,63 @@
+package com.github.formattoday.v2viewer.network;
+
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * 缓存新鲜期拦截器
+ * V2EX API 不返回可用的缓存头，这里按接口改写 Cache-Control，
+ * 保留 ETag/Last-Modified 等校验头，使磁盘缓存可以条件请求重新验证
+ */
+final class CacheFreshnessInterceptor implements Interceptor {
+
+    @Override
+    public @NotNull Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method())
+                || !(response.isSuccessful() || response.code() == 304)) {
+            return response;
+        }
+
+        int maxAge = maxAgeFor(request.url(), V2EXSettings.getInstance());
+        if (maxAge < 0) {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "private, max-age=" + maxAge)
+                .build();
+    }
+
+    /**
+     * 获取接口对应的新鲜期（秒），不认识的接口返回 -1
+     * 只比较接口地址之后的路径，接口地址可在设置中更改
+     */
+    static int maxAgeFor(HttpUrl url, V2EXSettings settings) {
+        String path = url.encodedPath();
+        if (path.endsWith("/topics/hot.json")) {
+            return settings.hotListMaxAge;
+        }
+        if (path.endsWith("/topics/latest.json")) {
+            return settings.latestListMaxAge;
+        }
+        if (path.endsWith("/topics/show.json")) {
+            return url.queryParameter("node_name") != null
+                    ? settings.nodeListMaxAge
+                    : settings.topicMaxAge;
+        }
+        if (path.endsWith("/replies/show.json")) {
+            return settings.repliesMaxAge;
+        }
+        return -1;
+    }
+}
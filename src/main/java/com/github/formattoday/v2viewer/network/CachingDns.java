@@ -0,0 +1,90 @@
+package com.github.formattoday.v2viewer.network;
+
+import com.intellij.openapi.diagnostic.Logger;
+import okhttp3.Dns;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 带有效期的 DNS 缓存
+ * JDK 取不到解析记录本身的 TTL，有效期使用设置中的上限，过期后重新解析；
+ * 重新解析失败（如刚从休眠恢复、网络尚未就绪）时在宽限期内沿用旧结果，失败结果不缓存。
+ * 连接某个地址失败时丢弃该域名的缓存，避免 IP 变更后持续连接旧地址
+ */
+final class CachingDns implements Dns {
+    private static final Logger LOG = Logger.getInstance(CachingDns.class);
+    private static final long STALE_GRACE_MS = TimeUnit.MINUTES.toMillis(10);  // 解析失败时沿用旧结果的宽限期
+
+    private final Dns delegate;
+    private final IntSupplier ttlSeconds;   // 有效期（秒），0 表示不缓存
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // 统计
+    private final AtomicLong hits = new AtomicLong();       // 使用缓存
+    private final AtomicLong lookups = new AtomicLong();    // 实际解析
+    private final AtomicLong staleHits = new AtomicLong();  // 解析失败后沿用旧结果
+
+    /**
+     * 解析结果
+     *
+     * @param addresses  地址列表（不可变）
+     * @param resolvedAt 解析时间（毫秒）
+     */
+    private record Entry(List<InetAddress> addresses, long resolvedAt) {
+    }
+
+    CachingDns(Dns delegate, IntSupplier ttlSeconds) {
+        this.delegate = delegate;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public @NotNull List<InetAddress> lookup(@NotNull String hostname) throws UnknownHostException {
+        long ttlMs = TimeUnit.SECONDS.toMillis(Math.max(0, ttlSeconds.getAsInt()));
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(hostname);
+        if (entry != null && now - entry.resolvedAt() < ttlMs) {
+            hits.incrementAndGet();
+            return entry.addresses();
+        }
+
+        lookups.incrementAndGet();
+        try {
+            List<InetAddress> addresses = delegate.lookup(hostname);
+            if (ttlMs > 0) {
+                entries.put(hostname, new Entry(List.copyOf(addresses), now));
+            } else {
+                entries.remove(hostname);
+            }
+            return addresses;
+        } catch (UnknownHostException e) {
+            if (entry != null && now - entry.resolvedAt() < ttlMs + STALE_GRACE_MS) {
+                staleHits.incrementAndGet();
+                LOG.info("解析 " + hostname + " 失败，沿用 " + TimeUnit.MILLISECONDS.toSeconds(now - entry.resolvedAt())
+                        + " 秒前的结果: " + e.getMessage());
+                return entry.addresses();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 丢弃域名的缓存，下次连接重新解析
+     */
+    void invalidate(String hostname) {
+        entries.remove(hostname);
+    }
+
+    String getStats() {
+        return String.format("域名 %d，命中 %d，解析 %d，失败沿用 %d",
+                entries.size(), hits.get(), lookups.get(), staleHits.get());
+    }
+}
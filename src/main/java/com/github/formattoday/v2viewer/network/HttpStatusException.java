@@ -0,0 +1,25 @@
+package com.github.formattoday.v2viewer.network;
+
+import java.io.IOException;
+
+/**
+ * HTTP 非成功状态异常
+ */
+public class HttpStatusException extends IOException {
+    private final int code;         // 状态码
+    private final String status;    // 状态描述
+
+    public HttpStatusException(int code, String status) {
+        super(code + " " + status);
+        this.code = code;
+        this.status = status;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
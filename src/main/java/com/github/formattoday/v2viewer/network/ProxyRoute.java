@@ -0,0 +1,88 @@
+package com.github.formattoday.v2viewer.network;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Locale;
+
+/**
+ * 代理路由
+ * 直连或经某个 HTTP/SOCKS 代理访问接口，文本形式为 direct、http://主机:端口 或 socks://主机:端口
+ *
+ * @param type 路由类型
+ * @param host 代理主机，直连为空串
+ * @param port 代理端口，直连为 0
+ */
+public record ProxyRoute(Proxy.Type type, String host, int port) {
+    public static final ProxyRoute DIRECT = new ProxyRoute(Proxy.Type.DIRECT, "", 0);
+
+    /**
+     * 解析路由文本
+     *
+     * @throws IllegalArgumentException 格式无效
+     */
+    public static ProxyRoute parse(String text) {
+        String value = text.trim();
+        if (value.equalsIgnoreCase("direct")) {
+            return DIRECT;
+        }
+
+        int schemeEnd = value.indexOf("://");
+        int portStart = value.lastIndexOf(':');
+        if (schemeEnd <= 0 || portStart <= schemeEnd + 3) {
+            throw new IllegalArgumentException("无效的代理路由: " + value);
+        }
+        Proxy.Type type = switch (value.substring(0, schemeEnd).toLowerCase(Locale.ROOT)) {
+            case "http" -> Proxy.Type.HTTP;
+            case "socks", "socks5" -> Proxy.Type.SOCKS;
+            default -> throw new IllegalArgumentException("不支持的代理类型: " + value);
+        };
+        String host = value.substring(schemeEnd + 3, portStart);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);
+        }
+        int port;
+        try {
+            port = Integer.parseInt(value.substring(portStart + 1));
+        } catch (NumberFormatException e) {
+            port = -1;
+        }
+        if (host.isEmpty() || port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("无效的代理路由: " + value);
+        }
+        return new ProxyRoute(type, host, port);
+    }
+
+    /**
+     * 转为 JDK 代理
+     * 代理地址不在此处解析，HTTP 代理由 OkHttp 经共享的 DNS 缓存解析，SOCKS 代理交给 JDK
+     */
+    public Proxy toProxy() {
+        if (type == Proxy.Type.DIRECT) {
+            return Proxy.NO_PROXY;
+        }
+        return new Proxy(type, InetSocketAddress.createUnresolved(host, port));
+    }
+
+    /**
+     * 是否对应同一个 JDK 代理
+     */
+    boolean matches(Proxy proxy) {
+        if (proxy.type() != type) {
+            return false;
+        }
+        if (type == Proxy.Type.DIRECT) {
+            return true;
+        }
+        return proxy.address() instanceof InetSocketAddress address
+                && address.getPort() == port && address.getHostString().equals(host);
+    }
+
+    @Override
+    public String toString() {
+        if (type == Proxy.Type.DIRECT) {
+            return "direct";
+        }
+        String scheme = type == Proxy.Type.SOCKS ? "socks" : "http";
+        return scheme + "://" + (host.indexOf(':') >= 0 ? "[" + host + "]" : host) + ":" + port;
+    }
+}
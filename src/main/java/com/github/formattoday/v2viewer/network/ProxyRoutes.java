@@ -0,0 +1,370 @@
+package com.github.formattoday.v2viewer.network;
+
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 代理路由选择
+ * 管理多条候选路由（直连或代理），工具窗口显示期间定期经每条路由向接口主机发 HEAD 请求，
+ * 记录建连到收到响应头的耗时并平滑。OkHttp 建立新连接时按 select 返回的顺序依次尝试：
+ * 首选路由在前，其余健康路由按延迟从快到慢，未检测的其次，失败的放在最后兜底。
+ * 请求中某条路由连接失败时立即标记并切换首选，后续请求不再先等它超时；延迟接近时不切换，避免来回抖动
+ */
+public final class ProxyRoutes extends ProxySelector {
+    private static final Logger LOG = Logger.getInstance(ProxyRoutes.class);
+
+    private static final Duration CHECK_TIMEOUT = Duration.ofSeconds(5);  // 检测请求的连接和读取超时
+    private static final long CHECK_INTERVAL_SECONDS = 60;                // 定期检测间隔
+    private static final long RECHECK_DELAY_SECONDS = 10;                 // 请求中连接失败后重新检测的延迟
+    private static final double SMOOTHING = 0.3;                          // 延迟平滑系数，新样本所占权重
+    private static final double SWITCH_RATIO = 0.8;                       // 延迟低于首选路由的此比例才切换
+
+    /**
+     * 路由健康状态
+     */
+    public enum State {
+        UNKNOWN,  // 未检测
+        HEALTHY,  // 可用
+        FAILED    // 最近一次检测或连接失败
+    }
+
+    /**
+     * 路由状态
+     *
+     * @param route     路由
+     * @param state     健康状态
+     * @param latencyMs 平滑后的延迟（毫秒），从未检测成功为 -1
+     * @param error     最近一次失败的原因
+     * @param checkedAt 最近一次检测或失败的时间（毫秒），0 表示未检测
+     */
+    public record Status(ProxyRoute route, State state, long latencyMs, @Nullable String error, long checkedAt) {
+        static Status unknown(ProxyRoute route) {
+            return new Status(route, State.UNKNOWN, -1, null, 0);
+        }
+    }
+
+    private final OkHttpClient checkClient;   // 检测用客户端，连接用完即关，每次测得完整的建连耗时
+    private final Runnable preferredChanged;  // 首选路由变化回调
+    private final Map<ProxyRoute, Status> statuses = new ConcurrentHashMap<>();
+    private volatile List<ProxyRoute> routes = List.of(ProxyRoute.DIRECT);  // 按设置中的顺序
+    private volatile ProxyRoute preferred = ProxyRoute.DIRECT;              // 首选路由
+    private volatile @Nullable HttpUrl target;                              // 定期检测的接口地址
+    private @Nullable ScheduledFuture<?> schedule;                          // 定期检测任务，由 this 保护
+    private final AtomicBoolean recheckPending = new AtomicBoolean();
+
+    // 统计
+    private final AtomicLong checks = new AtomicLong();    // 检测次数
+    private final AtomicLong failures = new AtomicLong();  // 请求中连接失败次数
+    private final AtomicLong switches = new AtomicLong();  // 首选路由切换次数
+
+    ProxyRoutes(Dns dns, Runnable preferredChanged) {
+        this.preferredChanged = preferredChanged;
+        this.checkClient = new OkHttpClient.Builder()
+                .dns(dns)
+                .connectionPool(new ConnectionPool(0, 1, TimeUnit.SECONDS))
+                .retryOnConnectionFailure(false)
+                .connectTimeout(CHECK_TIMEOUT)
+                .readTimeout(CHECK_TIMEOUT)
+                .writeTimeout(CHECK_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * 更换候选路由，保留仍在列表中的路由的状态，首选恢复为第一条
+     */
+    void setRoutes(List<ProxyRoute> newRoutes) {
+        routes = List.copyOf(newRoutes);
+        statuses.keySet().retainAll(routes);
+        HttpUrl url;
+        synchronized (this) {
+            preferred = routes.get(0);
+            url = schedule != null ? target : null;
+        }
+        if (url != null && routes.size() > 1) {
+            checkAll(url);
+        }
+    }
+
+    /**
+     * 候选路由，按设置中的顺序
+     */
+    public List<ProxyRoute> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * 当前首选路由
+     */
+    public ProxyRoute getPreferred() {
+        return preferred;
+    }
+
+    /**
+     * 各路由状态，按设置中的顺序
+     */
+    public List<Status> getStatus() {
+        return routes.stream().map(this::status).toList();
+    }
+
+    /**
+     * 开始定期检测，有多条路由时才实际发出请求；重复调用只更新检测地址
+     */
+    public synchronized void start(HttpUrl target) {
+        this.target = target;
+        if (schedule == null) {
+            schedule = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(() -> {
+                HttpUrl url = this.target;
+                if (url != null && routes.size() > 1) {
+                    checkAll(url);
+                }
+            }, 0, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 停止定期检测
+     */
+    public synchronized void stop() {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+
+    /**
+     * 立即检测所有路由，全部完成后更新首选路由
+     */
+    public CompletableFuture<Void> checkAll(HttpUrl url) {
+        HttpUrl root = url.newBuilder().encodedPath("/").build();
+        CompletableFuture<?>[] futures = routes.stream()
+                .map(route -> check(route, root))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures).whenComplete((result, error) -> updatePreferred());
+    }
+
+    private CompletableFuture<Void> check(ProxyRoute route, HttpUrl root) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        OkHttpClient client = checkClient.newBuilder().proxy(route.toProxy()).build();
+        long start = System.nanoTime();
+        checks.incrementAndGet();
+        client.newCall(new Request.Builder().url(root).head().build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                recordCheck(route, -1, e);
+                done.complete(null);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                // 收到任何响应都说明经此路由能到达接口主机
+                response.close();
+                recordCheck(route, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    private void recordCheck(ProxyRoute route, long sampleMs, @Nullable IOException error) {
+        if (!routes.contains(route)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        statuses.compute(route, (key, old) -> {
+            long previous = old != null ? old.latencyMs() : -1;
+            if (error != null) {
+                return new Status(key, State.FAILED, previous, describe(error), now);
+            }
+            long latency = previous < 0 ? sampleMs : Math.round(previous * (1 - SMOOTHING) + sampleMs * SMOOTHING);
+            return new Status(key, State.HEALTHY, latency, null, now);
+        });
+        if (error != null) {
+            LOG.info("代理路由 " + route + " 检测失败: " + describe(error));
+        }
+    }
+
+    /**
+     * 请求经某条路由连接失败，立即标记并在稍后重新检测
+     */
+    void connectFailed(Proxy proxy, IOException error) {
+        ProxyRoute route = find(proxy);
+        if (route == null) {
+            return;
+        }
+        failures.incrementAndGet();
+        long now = System.currentTimeMillis();
+        statuses.compute(route, (key, old) ->
+                new Status(key, State.FAILED, old != null ? old.latencyMs() : -1, describe(error), now));
+        LOG.info("代理路由 " + route + " 连接失败: " + describe(error));
+        updatePreferred();
+        scheduleRecheck();
+    }
+
+    /**
+     * 请求经某条路由建立了连接，之前标记为失败的路由恢复可用
+     */
+    void connected(Proxy proxy) {
+        ProxyRoute route = find(proxy);
+        if (route == null || status(route).state() != State.FAILED) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        statuses.computeIfPresent(route, (key, old) -> old.state() != State.FAILED ? old
+                : new Status(key, old.latencyMs() >= 0 ? State.HEALTHY : State.UNKNOWN, old.latencyMs(), null, now));
+        updatePreferred();
+    }
+
+    private void scheduleRecheck() {
+        HttpUrl url;
+        synchronized (this) {
+            url = schedule != null ? target : null;
+        }
+        if (url == null || routes.size() < 2 || !recheckPending.compareAndSet(false, true)) {
+            return;
+        }
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> {
+            recheckPending.set(false);
+            checkAll(url);
+        }, RECHECK_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 按最新状态重新选择首选路由
+     * 首选失败或尚无检测结果时换成最优路由；两者都健康时新路由要明显更快才切换
+     */
+    private void updatePreferred() {
+        ProxyRoute previous;
+        ProxyRoute next;
+        synchronized (this) {
+            previous = preferred;
+            List<ProxyRoute> current = routes;
+            ProxyRoute best = sorted(current).get(0);
+            Status currentStatus = status(previous);
+            Status bestStatus = status(best);
+            boolean keep = current.contains(previous) && currentStatus.state() != State.FAILED
+                    && (bestStatus.state() != State.HEALTHY
+                    || currentStatus.state() == State.HEALTHY
+                    && bestStatus.latencyMs() >= currentStatus.latencyMs() * SWITCH_RATIO);
+            next = keep ? previous : best;
+            if (next.equals(previous)) {
+                return;
+            }
+            preferred = next;
+        }
+        switches.incrementAndGet();
+        Status status = status(next);
+        String detail = status.state() == State.HEALTHY ? status.latencyMs() + " ms" : status.state().name();
+        LOG.info("首选代理路由切换: " + previous + " -> " + next + " (" + detail + ")");
+        DebugTrace.getInstance().record("http", () -> "代理路由切换 " + previous + " -> " + next + " " + detail);
+        preferredChanged.run();
+    }
+
+    /**
+     * 路由按健康状态和延迟排序：健康的按延迟从低到高，其次未检测的，失败的最后；同类保持设置中的顺序
+     */
+    private List<ProxyRoute> sorted(List<ProxyRoute> current) {
+        List<ProxyRoute> ordered = new ArrayList<>(current);
+        ordered.sort(Comparator.comparingInt((ProxyRoute route) -> rank(status(route).state()))
+                .thenComparingLong(route -> {
+                    Status status = status(route);
+                    return status.state() == State.HEALTHY ? status.latencyMs() : 0;
+                }));
+        return ordered;
+    }
+
+    private static int rank(State state) {
+        return switch (state) {
+            case HEALTHY -> 0;
+            case UNKNOWN -> 1;
+            case FAILED -> 2;
+        };
+    }
+
+    private Status status(ProxyRoute route) {
+        Status status = statuses.get(route);
+        return status != null ? status : Status.unknown(route);
+    }
+
+    private @Nullable ProxyRoute find(Proxy proxy) {
+        for (ProxyRoute route : routes) {
+            if (route.matches(proxy)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String describe(IOException error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    /**
+     * 新建连接时依次尝试的代理：首选在前，其余按健康状态和延迟排序
+     */
+    @Override
+    public List<Proxy> select(URI uri) {
+        List<ProxyRoute> current = routes;
+        if (current.size() == 1) {
+            return List.of(current.get(0).toProxy());
+        }
+        ProxyRoute first = preferred;
+        List<Proxy> proxies = new ArrayList<>(current.size());
+        if (current.contains(first)) {
+            proxies.add(first.toProxy());
+        }
+        for (ProxyRoute route : sorted(current)) {
+            if (!route.equals(first)) {
+                proxies.add(route.toProxy());
+            }
+        }
+        return proxies;
+    }
+
+    /**
+     * 连接失败由客户端的 EventListener 统一上报（直连失败也经由那里），此处不重复记录
+     */
+    @Override
+    public void connectFailed(URI uri, SocketAddress address, IOException error) {
+    }
+
+    /**
+     * 路由统计
+     */
+    String getStats() {
+        return String.format("路由 %d，首选 %s，检测 %d 次，连接失败 %d 次，切换 %d 次",
+                routes.size(), preferred, checks.get(), failures.get(), switches.get());
+    }
+
+    void dispose() {
+        stop();
+        checkClient.dispatcher().executorService().shutdown();
+    }
+}
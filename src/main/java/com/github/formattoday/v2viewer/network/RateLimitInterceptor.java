@@ -0,0 +1,26 @@
+package com.github.formattoday.v2viewer.network;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * 限流响应头拦截器
+ * 作为网络拦截器只看到真正发出的请求，缓存命中不消耗配额
+ */
+final class RateLimitInterceptor implements Interceptor {
+    private final RequestScheduler scheduler;
+
+    RateLimitInterceptor(RequestScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public @NotNull Response intercept(@NotNull Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        scheduler.update(response);
+        return response;
+    }
+}
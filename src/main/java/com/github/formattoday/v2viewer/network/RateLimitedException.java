@@ -0,0 +1,19 @@
+package com.github.formattoday.v2viewer.network;
+
+import java.io.IOException;
+
+/**
+ * 配额不足，请求被推迟
+ */
+public class RateLimitedException extends IOException {
+    private final long resetAt;     // 配额重置时间（毫秒）
+
+    public RateLimitedException(long resetAt) {
+        super("API 配额不足，推迟到配额重置后");
+        this.resetAt = resetAt;
+    }
+
+    public long getResetAt() {
+        return resetAt;
+    }
+}
@@ -0,0 +1,346 @@
+package com.github.formattoday.v2viewer.network;
+
+import com.intellij.openapi.diagnostic.Logger;
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 请求调度器
+ * 所有 V2EX API 请求经由此处派发：并发数有上限，排队时用户请求优先于预取和轮询；
+ * 根据 X-Rate-Limit-* 响应头跟踪剩余配额，配额不足时预取只读缓存、轮询推迟到重置，
+ * 配额将尽时用户请求也优先使用（可能过期的）缓存。
+ * 带相同键的并发请求合并为一次（single-flight），所有调用方都取消后才取消底层请求
+ */
+public final class RequestScheduler {
+    private static final Logger LOG = Logger.getInstance(RequestScheduler.class);
+
+    private static final int MAX_CONCURRENT = 4;          // 同时进行的 API 请求上限
+    private static final int USER_RESERVE = 5;            // 剩余不超过此数时用户请求优先用缓存
+    private static final double PREFETCH_RESERVE = 0.3;   // 剩余低于配额的此比例时预取只读缓存
+    private static final double POLL_RESERVE = 0.5;       // 剩余低于配额的此比例时轮询推迟到重置
+
+    private static final CacheControl STALE_OK = new CacheControl.Builder()
+            .maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS)
+            .build();
+    private static final DateTimeFormatter RESET_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm").withZone(ZoneId.systemDefault());
+
+    /**
+     * 请求优先级，越靠前越优先
+     */
+    public enum Priority {
+        USER,       // 用户发起的加载
+        PREFETCH,   // 预取
+        POLL        // 后台轮询
+    }
+
+    /**
+     * 配额变化监听器
+     */
+    public interface BudgetListener {
+        void budgetChanged();
+    }
+
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>(
+            Comparator.<Task<?>>comparingInt(task -> task.priority.ordinal()).thenComparingLong(task -> task.seq));
+    private final Map<String, Task<?>> flights = new HashMap<>();  // 按键索引的未完成请求
+    private final List<BudgetListener> listeners = new CopyOnWriteArrayList<>();
+    private int running;    // 进行中的请求数
+    private long nextSeq;   // 入队序号，同优先级先进先出
+
+    // 配额，-1 表示未知
+    private int limit = -1;
+    private int remaining = -1;
+    private long resetAt;   // 配额重置时间（毫秒）
+
+    // 统计
+    private final long[] dispatched = new long[Priority.values().length];
+    private long cacheFallbacks;    // 因配额不足改用缓存的请求数
+    private long deferred;          // 因配额不足推迟的轮询数
+    private long coalesced;         // 合并到已有请求而省下的请求数
+    private long cancelled;         // 被取消的请求数
+
+    /**
+     * 排队中的请求
+     */
+    private static final class Task<T> {
+        final String key;
+        final Request request;
+        final long seq;
+        final Function<Request, CompletableFuture<T>> executor;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        Priority priority;              // 合并了更高优先级的调用方时提升
+        int waiters;                    // 未取消的调用方数
+        CompletableFuture<T> inFlight;  // 已派发的请求
+
+        Task(@Nullable String key, Request request, Priority priority, long seq,
+             Function<Request, CompletableFuture<T>> executor) {
+            this.key = key;
+            this.request = request;
+            this.priority = priority;
+            this.seq = seq;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * 提交请求
+     *
+     * @param key      合并键，相同键的未完成请求会被复用，调用方需保证相同键的解析方式一致；为 null 时不合并
+     * @param executor 实际执行请求的函数，接收按配额调整过缓存策略的请求
+     * @return 每个调用方独立的 future；全部调用方取消后才从队列移除或取消底层请求
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(@Nullable String key, Request request, Priority priority,
+                                           Function<Request, CompletableFuture<T>> executor) {
+        Task<T> task;
+        synchronized (this) {
+            Task<?> existing = key == null ? null : flights.get(key);
+            if (existing != null && !existing.result.isDone()) {
+                task = (Task<T>) existing;
+                task.waiters++;
+                coalesced++;
+                // 仍在排队时按更高的优先级重新排序
+                if (priority.ordinal() < task.priority.ordinal() && queue.remove(task)) {
+                    task.priority = priority;
+                    queue.add(task);
+                }
+                return view(task);
+            }
+
+            task = new Task<>(key, request, priority, nextSeq++, executor);
+            task.waiters = 1;
+            queue.add(task);
+            if (key != null) {
+                flights.put(key, task);
+            }
+        }
+        Task<T> created = task;
+        task.result.whenComplete((value, error) -> onFinished(created));
+        pump();
+        return view(task);
+    }
+
+    /**
+     * 调用方视图，取消时释放对共享请求的引用
+     */
+    private <T> CompletableFuture<T> view(Task<T> task) {
+        CompletableFuture<T> view = new CompletableFuture<>();
+        task.result.whenComplete((value, error) -> {
+            if (error != null) {
+                view.completeExceptionally(error);
+            } else {
+                view.complete(value);
+            }
+        });
+        view.whenComplete((value, error) -> {
+            if (view.isCancelled()) {
+                release(task);
+            }
+        });
+        return view;
+    }
+
+    private void release(Task<?> task) {
+        synchronized (this) {
+            if (--task.waiters > 0 || task.result.isDone()) {
+                return;
+            }
+            cancelled++;
+        }
+        task.result.cancel(true);
+    }
+
+    private void onFinished(Task<?> task) {
+        CompletableFuture<?> inFlight = null;
+        synchronized (this) {
+            if (task.key != null && flights.get(task.key) == task) {
+                flights.remove(task.key);
+            }
+            if (task.result.isCancelled()) {
+                queue.remove(task);
+                inFlight = task.inFlight;
+            }
+        }
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+    }
+
+    /**
+     * 在并发上限内按优先级派发排队的请求
+     */
+    private void pump() {
+        while (true) {
+            Task<?> task;
+            synchronized (this) {
+                if (running >= MAX_CONCURRENT || queue.isEmpty()) {
+                    return;
+                }
+                task = queue.poll();
+                if (task.result.isDone()) {
+                    continue;
+                }
+                running++;
+                dispatched[task.priority.ordinal()]++;
+            }
+            dispatch(task);
+        }
+    }
+
+    private <T> void dispatch(Task<T> task) {
+        Request request = task.request;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            int available = availableBudget(now);
+            switch (task.priority) {
+                case USER -> {
+                    if (available >= 0 && available <= USER_RESERVE) {
+                        request = request.newBuilder().cacheControl(STALE_OK).build();
+                        cacheFallbacks++;
+                    }
+                }
+                case PREFETCH -> {
+                    if (available >= 0 && available <= limit * PREFETCH_RESERVE) {
+                        request = request.newBuilder().cacheControl(CacheControl.FORCE_CACHE).build();
+                        cacheFallbacks++;
+                    }
+                }
+                case POLL -> {
+                    if (available >= 0 && available <= limit * POLL_RESERVE) {
+                        deferred++;
+                        running--;
+                        task.result.completeExceptionally(new RateLimitedException(resetAt));
+                        return;
+                    }
+                }
+            }
+        }
+
+        CompletableFuture<T> inFlight;
+        try {
+            inFlight = task.executor.apply(request);
+        } catch (RuntimeException e) {
+            inFlight = CompletableFuture.failedFuture(e);
+        }
+        synchronized (this) {
+            task.inFlight = inFlight;
+        }
+        if (task.result.isCancelled()) {
+            inFlight.cancel(true);
+        }
+        inFlight.whenComplete((value, error) -> {
+            if (error != null) {
+                task.result.completeExceptionally(error);
+            } else {
+                task.result.complete(value);
+            }
+            synchronized (this) {
+                running--;
+            }
+            pump();
+        });
+    }
+
+    /**
+     * 当前可用配额，未知时返回 -1；已过重置时间视为配额已恢复
+     */
+    private int availableBudget(long now) {
+        if (remaining < 0) {
+            return -1;
+        }
+        return resetAt > 0 && now >= resetAt ? limit : remaining;
+    }
+
+    /**
+     * 从响应头更新配额
+     */
+    void update(Response response) {
+        String remainingHeader = response.header("X-Rate-Limit-Remaining");
+        if (remainingHeader == null) {
+            return;
+        }
+        try {
+            int newRemaining = Integer.parseInt(remainingHeader.trim());
+            String limitHeader = response.header("X-Rate-Limit-Limit");
+            String resetHeader = response.header("X-Rate-Limit-Reset");
+            synchronized (this) {
+                remaining = newRemaining;
+                if (limitHeader != null) {
+                    limit = Integer.parseInt(limitHeader.trim());
+                }
+                limit = Math.max(limit, remaining);
+                if (resetHeader != null) {
+                    resetAt = Long.parseLong(resetHeader.trim()) * 1000L;
+                }
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("无法解析限流响应头: " + remainingHeader);
+            return;
+        }
+        for (BudgetListener listener : listeners) {
+            listener.budgetChanged();
+        }
+    }
+
+    /**
+     * 添加配额变化监听器
+     */
+    public void addBudgetListener(BudgetListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 移除配额变化监听器
+     */
+    public void removeBudgetListener(BudgetListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 配额描述，用于界面显示
+     */
+    public synchronized String getBudgetText() {
+        int available = availableBudget(System.currentTimeMillis());
+        if (available < 0) {
+            return "API 配额: 未知";
+        }
+        String text = "API 配额: " + available + "/" + limit;
+        return resetAt > System.currentTimeMillis()
+                ? text + "，" + RESET_FORMAT.format(Instant.ofEpochMilli(resetAt)) + " 重置"
+                : text;
+    }
+
+    /**
+     * 配额是否偏低（预取已改用缓存）
+     */
+    public synchronized boolean isBudgetLow() {
+        int available = availableBudget(System.currentTimeMillis());
+        return available >= 0 && available <= limit * PREFETCH_RESERVE;
+    }
+
+    /**
+     * 调度统计
+     */
+    public synchronized String getStats() {
+        return String.format("用户 %d，预取 %d，轮询 %d，合并省下 %d，取消 %d，改用缓存 %d，推迟 %d，排队 %d，进行中 %d",
+                dispatched[Priority.USER.ordinal()], dispatched[Priority.PREFETCH.ordinal()],
+                dispatched[Priority.POLL.ordinal()], coalesced, cancelled, cacheFallbacks, deferred,
+                queue.size(), running);
+    }
+}
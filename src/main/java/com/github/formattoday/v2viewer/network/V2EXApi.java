@@ -0,0 +1,35 @@
+package com.github.formattoday.v2viewer.network;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * V2EX API 请求构建接口
+ * 数据服务只通过此接口得到请求，接口地址可在设置中改为本地回放服务器，
+ * 在可控的延迟、错误和限流条件下复现与测量加载过程
+ */
+public interface V2EXApi {
+    String DEFAULT_BASE_URL = "https://www.v2ex.com/api/";
+
+    /**
+     * 接口地址，以 / 结尾
+     */
+    HttpUrl baseUrl();
+
+    /**
+     * 节点的主题列表请求
+     *
+     * @param revalidate 强制重新验证 HTTP 缓存
+     */
+    Request topicList(String node, boolean revalidate);
+
+    /**
+     * 主题详情请求
+     */
+    Request topic(int topicId);
+
+    /**
+     * 一页回复请求
+     */
+    Request replies(int topicId, int page);
+}
@@ -0,0 +1,456 @@
+package com.github.formattoday.v2viewer.network;
+
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.github.formattoday.v2viewer.diagnostics.DebugTraceInterceptor;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * V2EX HTTP 客户端服务
+ * 应用级共享的 OkHttpClient，所有客户端共用一个连接池、调度器、DNS 缓存和磁盘缓存，按代理路由配置区分；
+ * API 请求经 RequestScheduler 按优先级和剩余配额派发。
+ * 配置了多条代理路由时由 ProxyRoutes 按健康状态和延迟选择，并缩短连接超时，路由不可用时很快换下一条。
+ * 工具窗口显示时预先建立到接口主机的连接，空闲连接按设置保活并定期 ping，首次点击即可使用已建好的连接
+ */
+public final class V2EXHttpClientService implements V2EXSettings.SettingsChangeListener, Disposable {
+    private static final Logger LOG = Logger.getInstance(V2EXHttpClientService.class);
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration FAILOVER_CONNECT_TIMEOUT = Duration.ofSeconds(5);  // 有备用路由时的连接超时
+    private static final long PREWARM_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);  // 两次预热的最小间隔
+
+    // 共享资源
+    private final Dispatcher dispatcher = new Dispatcher();
+    private final CachingDns dns = new CachingDns(Dns.SYSTEM, () -> V2EXSettings.getInstance().dnsCacheSeconds);
+    private final Cache cache;
+    private volatile ConnectionPool connectionPool;  // 保活时间变更时替换
+    private volatile OkHttpClient baseClient;
+    private volatile int keepAliveMinutes;           // 当前连接池的保活时间
+    private final RequestScheduler scheduler = new RequestScheduler();
+
+    // 按代理路由配置缓存的客户端
+    private final Map<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+    private final ProxyRoutes routes = new ProxyRoutes(dns, this::preferredRouteChanged);
+    private volatile String currentRoutesKey;
+
+    // 连接复用统计
+    private final AtomicLong poolHits = new AtomicLong();    // 复用已有连接
+    private final AtomicLong poolMisses = new AtomicLong();  // 新建连接
+
+    // 连接预热
+    private final AtomicLong lastPrewarmAt = new AtomicLong();  // 上次预热时间（毫秒）
+    private final Map<String, Long> hostLastUsed = new ConcurrentHashMap<>();  // 各主机的连接最近一次取用或归还的时间（毫秒）
+    private final AtomicLong prewarms = new AtomicLong();       // 预热次数
+
+    public V2EXHttpClientService() {
+        V2EXSettings settings = V2EXSettings.getInstance();
+
+        // 磁盘缓存位于 IDE 系统目录，大小在启动时确定
+        this.cache = new Cache(getCacheDirectory(), Math.max(1, settings.httpCacheSizeMb) * 1024L * 1024L);
+
+        keepAliveMinutes = settings.keepAliveMinutes;
+        connectionPool = createConnectionPool(keepAliveMinutes);
+        this.baseClient = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .dns(dns)
+                .cache(cache)
+                .addInterceptor(new DebugTraceInterceptor())
+                .addNetworkInterceptor(new RateLimitInterceptor(scheduler))
+                .addNetworkInterceptor(new CacheFreshnessInterceptor())
+                .eventListenerFactory(call -> new PoolStatsListener())
+                .connectTimeout(CONNECT_TIMEOUT)
+                .readTimeout(Duration.ofSeconds(30))
+                .writeTimeout(Duration.ofSeconds(30))
+                // HTTP/2 连接定期 ping，保活期内不被服务器或 NAT 断开，休眠后失效的连接也能及早发现
+                .pingInterval(Duration.ofSeconds(30))
+                .build();
+
+        List<ProxyRoute> configured = getRoutes(settings);
+        routes.setRoutes(configured);
+        currentRoutesKey = routesKey(configured);
+        settings.addChangeListener(this);
+    }
+
+    /**
+     * 获取服务实例
+     */
+    public static V2EXHttpClientService getInstance() {
+        return ApplicationManager.getApplication().getService(V2EXHttpClientService.class);
+    }
+
+    /**
+     * 获取当前代理路由配置对应的客户端
+     * 只有一条路由时固定使用它；有多条时交给 ProxyRoutes 排序，连接超时缩短以便尽快换下一条
+     */
+    public OkHttpClient getClient() {
+        return clients.computeIfAbsent(currentRoutesKey, key -> {
+            List<ProxyRoute> current = routes.getRoutes();
+            if (current.size() == 1) {
+                return baseClient.newBuilder().proxy(current.get(0).toProxy()).build();
+            }
+            return baseClient.newBuilder()
+                    .proxySelector(routes)
+                    .connectTimeout(FAILOVER_CONNECT_TIMEOUT)
+                    .build();
+        });
+    }
+
+    /**
+     * 代理路由及其健康状态
+     */
+    public ProxyRoutes getRoutes() {
+        return routes;
+    }
+
+    /**
+     * 请求调度器
+     */
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 响应体解析器
+     */
+    public interface BodyParser<T> {
+        T parse(ResponseBody body) throws IOException;
+    }
+
+    /**
+     * 异步执行请求并读取响应体
+     */
+    public CompletableFuture<String> fetchString(Request request, RequestScheduler.Priority priority) {
+        return fetch(request, priority, null, Function.identity());
+    }
+
+    /**
+     * 异步执行请求并在 OkHttp 线程上解析响应体
+     *
+     * @param flightKey 合并键，相同键的并发请求只发出一次，为 null 时不合并
+     */
+    public <T> CompletableFuture<T> fetch(Request request, RequestScheduler.Priority priority,
+                                          @Nullable String flightKey, Function<String, T> parser) {
+        return fetchBody(request, priority, flightKey, body -> parser.apply(body.string()));
+    }
+
+    /**
+     * 经调度器异步执行请求，直接从响应体解析（可流式读取）
+     * 请求在 OkHttp 调度器上执行，可与其他请求并行；取消返回的 future 会取消排队或进行中的调用
+     *
+     * @param flightKey 合并键，相同键的并发请求只发出一次，为 null 时不合并
+     */
+    public <T> CompletableFuture<T> fetchBody(Request request, RequestScheduler.Priority priority,
+                                              @Nullable String flightKey, BodyParser<T> parser) {
+        return scheduler.submit(flightKey, request, priority, scheduled -> execute(scheduled, parser));
+    }
+
+    private <T> CompletableFuture<T> execute(Request request, BodyParser<T> parser) {
+        Call call = getClient().newCall(request);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        future.completeExceptionally(new HttpStatusException(response.code(), response.message()));
+                        return;
+                    }
+                    future.complete(parser.parse(response.body()));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 预先建立到接口主机的连接（DNS、TCP、代理握手和 TLS），供随后的请求复用
+     * 保活期内用过到该主机的连接（连接仍在池中或请求正在进行）时跳过，只看接口主机，图片等其他主机的连接不算；
+     * 同一时间段内只预热一次；不访问接口，不消耗配额
+     */
+    public void prewarm(HttpUrl baseUrl) {
+        if (!V2EXSettings.getInstance().prewarmConnections) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long lastUsed = hostLastUsed.get(baseUrl.host());
+        if (lastUsed != null && now - lastUsed < TimeUnit.MINUTES.toMillis(keepAliveMinutes)) {
+            return;
+        }
+        long last = lastPrewarmAt.get();
+        if (now - last < PREWARM_INTERVAL_MS || !lastPrewarmAt.compareAndSet(last, now)) {
+            return;
+        }
+
+        prewarms.incrementAndGet();
+        HttpUrl root = baseUrl.newBuilder().encodedPath("/").build();
+        long start = System.nanoTime();
+        getClient().newCall(new Request.Builder().url(root).head().build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                LOG.info("预热连接 " + root.host() + " 失败: " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                response.close();
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                LOG.info(String.format("预热连接 %s 完成，%d ms", root.host(), elapsedMs));
+                DebugTrace.getInstance().record("http", () -> "预热连接 " + root.host() + " " + elapsedMs + " ms");
+            }
+        });
+    }
+
+    /**
+     * 获取设置中的代理路由
+     * 第一条是主代理（未启用代理时为直连），其后是备用路由；无效或重复的备用路由忽略
+     */
+    public static List<ProxyRoute> getRoutes(V2EXSettings settings) {
+        Set<ProxyRoute> result = new LinkedHashSet<>();
+        if (settings.useProxy && !settings.proxyHost.isEmpty()) {
+            Proxy.Type proxyType = "SOCKS".equals(settings.proxyType)
+                    ? Proxy.Type.SOCKS
+                    : Proxy.Type.HTTP;
+            result.add(new ProxyRoute(proxyType, settings.proxyHost, settings.proxyPort));
+        } else {
+            result.add(ProxyRoute.DIRECT);
+        }
+        for (String line : settings.proxyRoutes) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                result.add(ProxyRoute.parse(line));
+            } catch (IllegalArgumentException e) {
+                LOG.warn(e.getMessage());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * HTTP 缓存目录
+     */
+    public static File getCacheDirectory() {
+        return Path.of(PathManager.getSystemPath(), "v2ex-viewer", "http-cache").toFile();
+    }
+
+    /**
+     * 代理路由配置的缓存键
+     */
+    private static String routesKey(List<ProxyRoute> routes) {
+        return routes.stream().map(ProxyRoute::toString).collect(Collectors.joining(","));
+    }
+
+    private static ConnectionPool createConnectionPool(int keepAliveMinutes) {
+        return new ConnectionPool(5, Math.max(1, keepAliveMinutes), TimeUnit.MINUTES);
+    }
+
+    /**
+     * 设置变更回调，保活时间变化时更换连接池，代理路由变化时重建客户端
+     */
+    @Override
+    public void onSettingsChanged() {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        if (settings.keepAliveMinutes != keepAliveMinutes) {
+            LOG.info("连接保活时间变更: " + keepAliveMinutes + " -> " + settings.keepAliveMinutes + " 分钟");
+            ConnectionPool oldPool = connectionPool;
+            keepAliveMinutes = settings.keepAliveMinutes;
+            connectionPool = createConnectionPool(keepAliveMinutes);
+            baseClient = baseClient.newBuilder().connectionPool(connectionPool).build();
+            clients.clear();
+            // 进行中的请求用完后连接随旧连接池回收
+            oldPool.evictAll();
+            hostLastUsed.clear();
+        }
+
+        List<ProxyRoute> configured = getRoutes(settings);
+        String newKey = routesKey(configured);
+        if (newKey.equals(currentRoutesKey)) {
+            return;
+        }
+        LOG.info("代理路由变更: " + currentRoutesKey + " -> " + newKey);
+        routes.setRoutes(configured);
+        currentRoutesKey = newKey;
+        clients.keySet().removeIf(key -> !key.equals(newKey));
+        // 旧路由上的空闲连接不会再被使用，新路由可以立即预热
+        evictIdleConnections();
+    }
+
+    /**
+     * 首选路由变化，丢弃空闲连接，之后的请求经新的首选路由建立连接
+     */
+    private void preferredRouteChanged() {
+        evictIdleConnections();
+    }
+
+    /**
+     * 丢弃空闲连接，允许立即重新预热
+     */
+    private void evictIdleConnections() {
+        connectionPool.evictAll();
+        hostLastUsed.clear();
+        lastPrewarmAt.set(0);
+    }
+
+    /**
+     * 连接池命中次数
+     */
+    public long getPoolHits() {
+        return poolHits.get();
+    }
+
+    /**
+     * 连接池未命中次数
+     */
+    public long getPoolMisses() {
+        return poolMisses.get();
+    }
+
+    /**
+     * 连接统计：空闲 / 全部连接、保活时间、预热次数
+     */
+    public String getConnectionStats() {
+        ConnectionPool pool = connectionPool;
+        return String.format("空闲 %d / 共 %d，保活 %d 分钟，预热 %d 次",
+                pool.idleConnectionCount(), pool.connectionCount(), keepAliveMinutes, prewarms.get());
+    }
+
+    /**
+     * 代理路由统计
+     */
+    public String getRouteStats() {
+        return routes.getStats();
+    }
+
+    /**
+     * DNS 缓存统计
+     */
+    public String getDnsStats() {
+        return dns.getStats();
+    }
+
+    /**
+     * 缓存统计：请求数 / 网络请求数 / 命中数
+     */
+    public String getCacheStats() {
+        return String.format("缓存请求 %d，网络 %d，命中 %d，占用 %d KB",
+                cache.requestCount(), cache.networkCount(), cache.hitCount(), cacheSizeKb());
+    }
+
+    private long cacheSizeKb() {
+        try {
+            return cache.size() / 1024;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        V2EXSettings.getInstance().removeChangeListener(this);
+        routes.dispose();
+        dispatcher.cancelAll();
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+        try {
+            cache.close();
+        } catch (IOException e) {
+            LOG.warn("关闭 HTTP 缓存失败", e);
+        }
+    }
+
+    /**
+     * 统计每次调用是否复用了连接池中的连接，并把建连结果上报给路由选择
+     */
+    private class PoolStatsListener extends EventListener {
+        private boolean connected;  // 本次调用是否新建了连接
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+            connected = true;
+        }
+
+        @Override
+        public void connectFailed(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy,
+                                  @Nullable Protocol protocol, @NotNull IOException ioe) {
+            // 不经代理时连接的是解析出的地址，失败后重新解析
+            if (proxy.type() == Proxy.Type.DIRECT) {
+                dns.invalidate(call.request().url().host());
+            }
+            routes.connectFailed(proxy, ioe);
+        }
+
+        @Override
+        public void connectEnd(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy,
+                               @Nullable Protocol protocol) {
+            routes.connected(proxy);
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            hostLastUsed.put(connection.route().address().url().host(), System.currentTimeMillis());
+            long hits = connected ? poolHits.get() : poolHits.incrementAndGet();
+            long misses = connected ? poolMisses.incrementAndGet() : poolMisses.get();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("连接池 " + (connected ? "未命中" : "命中") + " " + call.request().url().host()
+                        + " (命中 " + hits + " / 未命中 " + misses + ")");
+            }
+        }
+
+        @Override
+        public void connectionReleased(@NotNull Call call, @NotNull Connection connection) {
+            // 归还后在保活期内仍可复用
+            hostLastUsed.put(connection.route().address().url().host(), System.currentTimeMillis());
+        }
+    }
+}
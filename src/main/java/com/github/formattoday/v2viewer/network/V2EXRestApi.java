@@ -0,0 +1,85 @@
+package com.github.formattoday.v2viewer.network;
+
+import okhttp3.CacheControl;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * V2EX API 1.0 的请求构建实现
+ * 路径相对于接口地址拼接，每次构建请求时读取当前的 API Token
+ */
+public final class V2EXRestApi implements V2EXApi {
+    private static final CacheControl REVALIDATE = new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build();
+
+    private final HttpUrl baseUrl;          // 接口地址，以 / 结尾
+    private final Supplier<String> token;   // API Token 来源
+
+    /**
+     * @param baseUrl 接口地址，如 https://www.v2ex.com/api/
+     * @throws IllegalArgumentException 地址不是有效的 http/https 地址
+     */
+    public V2EXRestApi(String baseUrl, Supplier<String> token) {
+        this.baseUrl = parseBaseUrl(baseUrl);
+        this.token = token;
+    }
+
+    /**
+     * 解析接口地址，缺少结尾的 / 时补上
+     *
+     * @throws IllegalArgumentException 地址不是有效的 http/https 地址
+     */
+    public static HttpUrl parseBaseUrl(String baseUrl) {
+        String trimmed = baseUrl.trim();
+        HttpUrl url = HttpUrl.parse(trimmed.endsWith("/") ? trimmed : trimmed + "/");
+        if (url == null) {
+            throw new IllegalArgumentException("无效的接口地址: " + baseUrl);
+        }
+        return url;
+    }
+
+    @Override
+    public HttpUrl baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public Request topicList(String node, boolean revalidate) {
+        HttpUrl.Builder url = baseUrl.newBuilder();
+        switch (node) {
+            case "tech", "creative", "play" -> url.addPathSegments("topics/show.json").addQueryParameter("node_name", node);
+            case "all" -> url.addPathSegments("topics/latest.json");
+            default -> url.addPathSegments("topics/hot.json");
+        }
+        Request.Builder request = newRequest(url.build());
+        if (revalidate) {
+            request.cacheControl(REVALIDATE);
+        }
+        return request.build();
+    }
+
+    @Override
+    public Request topic(int topicId) {
+        return newRequest(baseUrl.newBuilder()
+                .addPathSegments("topics/show.json")
+                .addQueryParameter("id", String.valueOf(topicId))
+                .build()).build();
+    }
+
+    @Override
+    public Request replies(int topicId, int page) {
+        return newRequest(baseUrl.newBuilder()
+                .addPathSegments("replies/show.json")
+                .addQueryParameter("topic_id", String.valueOf(topicId))
+                .addQueryParameter("p", String.valueOf(page))
+                .build()).build();
+    }
+
+    private Request.Builder newRequest(HttpUrl url) {
+        return new Request.Builder()
+                .url(url)
+                .header("Authorization", "Bearer " + token.get());
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.formattoday.v2viewer.render;
+
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.ui.JBColor;
+
+import javax.swing.*;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
+import javax.swing.text.View;
+import javax.swing.text.html.HTML;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * 异步图片视图
+ * 替代 Swing 自带的 ImageView：不在 EDT 上加载，不保留原图分辨率，
+ * 图片就绪前显示占位框，就绪后只通知所在行重新布局
+ */
+final class AsyncImageView extends View {
+    private static final String SITE_ORIGIN = "https://www.v2ex.com";
+    private static final int DEFAULT_WIDTH = 600;        // 容器尚未布局时的目标宽度
+    private static final int PLACEHOLDER_WIDTH = 160;
+    private static final int PLACEHOLDER_HEIGHT = 24;
+
+    private final String url;       // 图片地址，无法识别时为 null
+    private BufferedImage image;    // 已加载的图片
+    private boolean requested;      // 是否已发起加载
+    private boolean failed;         // 加载是否失败
+
+    AsyncImageView(Element elem) {
+        super(elem);
+        this.url = resolveUrl((String) elem.getAttributes().getAttribute(HTML.Attribute.SRC));
+    }
+
+    /**
+     * 补全协议相对地址和站内相对地址
+     */
+    private static String resolveUrl(String src) {
+        if (src == null || src.isBlank()) {
+            return null;
+        }
+        src = src.trim();
+        if (src.startsWith("//")) {
+            return "https:" + src;
+        }
+        if (src.startsWith("/")) {
+            return SITE_ORIGIN + src;
+        }
+        return src.startsWith("http://") || src.startsWith("https://") ? src : null;
+    }
+
+    @Override
+    public float getPreferredSpan(int axis) {
+        requestImage();
+        if (image == null) {
+            return axis == X_AXIS ? PLACEHOLDER_WIDTH : PLACEHOLDER_HEIGHT;
+        }
+        Dimension size = displaySize();
+        return axis == X_AXIS ? size.width : size.height;
+    }
+
+    @Override
+    public float getAlignment(int axis) {
+        // 与文字底部对齐
+        return axis == Y_AXIS ? 1.0f : super.getAlignment(axis);
+    }
+
+    @Override
+    public void paint(Graphics g, Shape allocation) {
+        Rectangle bounds = allocation.getBounds();
+        if (image != null) {
+            Dimension size = displaySize();
+            g.drawImage(image, bounds.x, bounds.y, size.width, size.height, null);
+            return;
+        }
+
+        // 占位框
+        g.setColor(JBColor.border());
+        g.drawRect(bounds.x, bounds.y, PLACEHOLDER_WIDTH - 1, PLACEHOLDER_HEIGHT - 1);
+        g.setColor(JBColor.GRAY);
+        FontMetrics metrics = g.getFontMetrics();
+        int baseline = bounds.y + (PLACEHOLDER_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2;
+        g.drawString(placeholderText(), bounds.x + 6, baseline);
+    }
+
+    private String placeholderText() {
+        if (url == null || failed) {
+            return "[图片加载失败]";
+        }
+        return V2EXSettings.getInstance().loadImages ? "图片加载中…" : "[图片]";
+    }
+
+    /**
+     * 图片超过容器宽度时按比例缩小显示
+     */
+    private Dimension displaySize() {
+        int available = availableWidth();
+        if (image.getWidth() <= available) {
+            return new Dimension(image.getWidth(), image.getHeight());
+        }
+        return new Dimension(available, Math.max(1, image.getHeight() * available / image.getWidth()));
+    }
+
+    /**
+     * 内容区域的可用宽度
+     */
+    private int availableWidth() {
+        Container container = getContainer();
+        if (container == null || container.getWidth() <= 0) {
+            return DEFAULT_WIDTH;
+        }
+        Insets insets = container instanceof JComponent component ? component.getInsets() : new Insets(0, 0, 0, 0);
+        return Math.max(PLACEHOLDER_WIDTH, container.getWidth() - insets.left - insets.right);
+    }
+
+    /**
+     * 首次布局时发起加载，命中内存缓存时直接使用
+     */
+    private void requestImage() {
+        if (requested || url == null || !V2EXSettings.getInstance().loadImages) {
+            return;
+        }
+        requested = true;
+
+        ImageLoader loader = ImageLoader.getInstance();
+        int width = availableWidth();
+        BufferedImage cached = loader.getCached(url, width);
+        if (cached != null) {
+            image = cached;
+            return;
+        }
+        loader.load(url, width).whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                failed = true;
+            } else {
+                image = loaded;
+            }
+            refreshLayout();
+        }));
+    }
+
+    /**
+     * 图片就绪后通知父视图重新计算尺寸
+     */
+    private void refreshLayout() {
+        if (getParent() == null) {
+            return;
+        }
+        Document document = getDocument();
+        if (document instanceof AbstractDocument abstractDocument) {
+            abstractDocument.readLock();
+        }
+        try {
+            preferenceChanged(null, true, true);
+        } finally {
+            if (document instanceof AbstractDocument abstractDocument) {
+                abstractDocument.readUnlock();
+            }
+        }
+        Container container = getContainer();
+        if (container != null) {
+            container.repaint();
+        }
+    }
+
+    @Override
+    public Shape modelToView(int pos, Shape a, Position.Bias b) throws BadLocationException {
+        int start = getStartOffset();
+        int end = getEndOffset();
+        if (pos < start || pos > end) {
+            throw new BadLocationException("位置不在图片视图内", pos);
+        }
+        Rectangle bounds = a.getBounds();
+        if (pos == end) {
+            bounds.x += bounds.width;
+        }
+        bounds.width = 0;
+        return bounds;
+    }
+
+    @Override
+    public int viewToModel(float x, float y, Shape a, Position.Bias[] biasReturn) {
+        Rectangle bounds = a.getBounds();
+        if (x < bounds.x + bounds.width / 2f) {
+            biasReturn[0] = Position.Bias.Forward;
+            return getStartOffset();
+        }
+        biasReturn[0] = Position.Bias.Backward;
+        return getEndOffset();
+    }
+}
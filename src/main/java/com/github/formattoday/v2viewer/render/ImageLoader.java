@@ -0,0 +1,292 @@
+package com.github.formattoday.v2viewer.render;
+
+import com.github.formattoday.v2viewer.network.HttpStatusException;
+import com.github.formattoday.v2viewer.network.V2EXHttpClientService;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 内容图片加载器
+ * 在后台下载并解码图片，按显示宽度缩小后放入按字节限制的 LRU 缓存；
+ * 原图保存在独立的磁盘缓存中，与 API 响应缓存互不挤占
+ */
+public final class ImageLoader implements Disposable {
+    private static final Logger LOG = Logger.getInstance(ImageLoader.class);
+
+    private static final long MAX_IMAGE_BYTES = 16L * 1024 * 1024;  // 单张原图上限
+    private static final int WIDTH_STEP = 100;  // 显示宽度按此步长取整，避免窗口微调时重复解码
+
+    private final Cache diskCache;  // 原图磁盘缓存
+    private final ExecutorService decoder =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("V2EX Image Decoder", 2);
+    private final Map<Key, CompletableFuture<BufferedImage>> loading = new ConcurrentHashMap<>();  // 加载中的图片
+
+    // 已解码图片，按访问顺序淘汰
+    private final Map<Key, BufferedImage> decoded = new LinkedHashMap<>(32, 0.75f, true);
+    private long decodedBytes;
+
+    // 基于当前代理客户端派生的图片客户端
+    private OkHttpClient baseClient;
+    private OkHttpClient imageClient;
+
+    // 统计
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Key(String url, int width) {
+    }
+
+    public ImageLoader() {
+        this.diskCache = new Cache(getCacheDirectory(),
+                Math.max(1, V2EXSettings.getInstance().imageDiskCacheMb) * 1024L * 1024L);
+    }
+
+    /**
+     * 获取加载器实例
+     */
+    public static ImageLoader getInstance() {
+        return ApplicationManager.getApplication().getService(ImageLoader.class);
+    }
+
+    /**
+     * 获取已解码的图片，未命中时返回 null
+     */
+    public synchronized @Nullable BufferedImage getCached(String url, int maxWidth) {
+        BufferedImage image = decoded.get(new Key(url, roundWidth(maxWidth)));
+        if (image != null) {
+            hits++;
+        }
+        return image;
+    }
+
+    /**
+     * 异步加载图片，宽度超过 maxWidth 时按比例缩小
+     * 同一图片同一宽度的并发请求共享一次下载和解码
+     */
+    public CompletableFuture<BufferedImage> load(String url, int maxWidth) {
+        Key key = new Key(url, roundWidth(maxWidth));
+        BufferedImage cached = getCached(url, maxWidth);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        synchronized (this) {
+            misses++;
+        }
+        return loading.computeIfAbsent(key, k -> {
+            CompletableFuture<BufferedImage> future = download(k);
+            future.whenComplete((image, error) -> loading.remove(k));
+            return future;
+        });
+    }
+
+    /**
+     * 读取全部内容，超过 maxBytes 时抛出 IOException，不再继续读取
+     */
+    private static byte[] readLimited(InputStream in, long maxBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new IOException("图片过大: 超过 " + maxBytes + " 字节");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private CompletableFuture<BufferedImage> download(Key key) {
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        Request request = new Request.Builder().url(key.url()).build();
+        client().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                byte[] data;
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        throw new HttpStatusException(response.code(), response.message());
+                    }
+                    if (response.body().contentLength() > MAX_IMAGE_BYTES) {
+                        throw new IOException("图片过大: " + response.body().contentLength() + " 字节");
+                    }
+                    // 分块传输或未给出长度时，读取过程中超过上限即停止
+                    data = readLimited(response.body().byteStream(), MAX_IMAGE_BYTES);
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+
+                // 解码放到独立线程池，不占用网络线程；关闭后线程池拒绝任务，直接以失败结束
+                try {
+                    decoder.execute(() -> {
+                        try {
+                            BufferedImage image = decode(data, key.width());
+                            put(key, image);
+                            future.complete(image);
+                        } catch (Exception e) {
+                            LOG.debug("图片解码失败: " + key.url(), e);
+                            future.completeExceptionally(e);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    LOG.debug("图片加载器已关闭，丢弃解码: " + key.url());
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 解码图片，原图远大于目标宽度时先按整数倍隔行采样，避免解码出完整分辨率的位图
+     */
+    static BufferedImage decode(byte[] data, int maxWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("不支持的图片格式");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int subsampling = Math.max(1, reader.getWidth(0) / maxWidth);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scaleToWidth(reader.read(0, param), maxWidth);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToWidth(BufferedImage image, int maxWidth) {
+        if (image.getWidth() <= maxWidth) {
+            return image;
+        }
+        int height = Math.max(1, (int) ((long) image.getHeight() * maxWidth / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(maxWidth, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, maxWidth, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private synchronized void put(Key key, BufferedImage image) {
+        long maxBytes = Math.max(1, V2EXSettings.getInstance().imageMemoryCacheMb) * 1024L * 1024L;
+        long bytes = estimateBytes(image);
+        if (bytes > maxBytes) {
+            return;
+        }
+
+        BufferedImage previous = decoded.put(key, image);
+        if (previous != null) {
+            decodedBytes -= estimateBytes(previous);
+        }
+        decodedBytes += bytes;
+
+        // 按访问顺序淘汰最久未用的图片
+        Iterator<BufferedImage> iterator = decoded.values().iterator();
+        while (decodedBytes > maxBytes && iterator.hasNext()) {
+            decodedBytes -= estimateBytes(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 估算位图占用的字节数
+     */
+    private static long estimateBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private static int roundWidth(int width) {
+        return Math.max(WIDTH_STEP, (width + WIDTH_STEP - 1) / WIDTH_STEP * WIDTH_STEP);
+    }
+
+    /**
+     * 图片客户端，共享连接池和代理配置，使用独立的磁盘缓存
+     */
+    private synchronized OkHttpClient client() {
+        OkHttpClient current = V2EXHttpClientService.getInstance().getClient();
+        if (current != baseClient) {
+            baseClient = current;
+            imageClient = current.newBuilder().cache(diskCache).build();
+        }
+        return imageClient;
+    }
+
+    /**
+     * 图片磁盘缓存目录
+     */
+    public static File getCacheDirectory() {
+        return Path.of(PathManager.getSystemPath(), "v2ex-viewer", "image-cache").toFile();
+    }
+
+    /**
+     * 缓存统计
+     */
+    public synchronized String getStats() {
+        return String.format("已解码 %d 张，占用 %d KB，命中 %d，未命中 %d，淘汰 %d，加载中 %d",
+                decoded.size(), decodedBytes / 1024, hits, misses, evictions, loading.size());
+    }
+
+    @Override
+    public void dispose() {
+        decoder.shutdownNow();
+        synchronized (this) {
+            decoded.clear();
+            decodedBytes = 0;
+        }
+        try {
+            diskCache.close();
+        } catch (IOException e) {
+            LOG.warn("关闭图片缓存失败", e);
+        }
+    }
+}
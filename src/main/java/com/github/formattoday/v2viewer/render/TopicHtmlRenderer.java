@@ -0,0 +1,211 @@
+package com.github.formattoday.v2viewer.render;
+
+import com.github.formattoday.v2viewer.model.Reply;
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 主题 HTML 渲染器
+ * 模板在插件会话内只编译一次并缓存，每次渲染只执行已编译的模板
+ */
+public final class TopicHtmlRenderer {
+    private static final String TOPIC_TEMPLATE = "topic.html";
+    private static final String REPLIES_TEMPLATE = "replies.html";
+
+    private final DefaultMustacheFactory factory = new DefaultMustacheFactory(TopicHtmlRenderer::openTemplate);
+    private final Map<String, Mustache> templates = new ConcurrentHashMap<>();  // 已编译模板
+    private final Supplier<V2EXSettings> settings;  // 字体和颜色设置来源
+
+    /**
+     * 使用应用级设置
+     */
+    public TopicHtmlRenderer() {
+        this(V2EXSettings::getInstance);
+    }
+
+    /**
+     * 使用指定的设置来源，供不启动 IDE 的基准测试（RenderBenchmark）和首次渲染测量（perf 包中的 TimeToRenderHarness）使用；
+     * 后者不在同一个包中，因此为 public
+     */
+    public TopicHtmlRenderer(Supplier<V2EXSettings> settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * 获取渲染器实例
+     */
+    public static TopicHtmlRenderer getInstance() {
+        return ApplicationManager.getApplication().getService(TopicHtmlRenderer.class);
+    }
+
+    /**
+     * 渲染主题和一页回复
+     *
+     * @param topic            主题
+     * @param replies          回复页，为 null 时只渲染主题
+     * @param totalPages       总页数
+     * @param firstReplyNumber 本页第一条回复的楼层号
+     * @param statusText       附加在主题下方的状态信息（加载中、错误等），可为 null
+     */
+    public String renderTopic(Topic topic, @Nullable ReplyPage replies, int totalPages, int firstReplyNumber,
+                              @Nullable String statusText) {
+        Map<String, Object> scope = createScope();
+        scope.put("title", topic.title);
+        scope.put("content", contentHtml(topic.contentRendered, topic.content));
+        scope.put("node", topic.nodeTitle);
+        scope.put("author", topic.author);
+        scope.put("replyCount", topic.replies);
+        scope.put("statusText", statusText);
+
+        if (replies != null) {
+            scope.put("showPagination", true);
+            putReplies(scope, replies, totalPages, firstReplyNumber);
+        }
+        return execute(TOPIC_TEMPLATE, scope);
+    }
+
+    /**
+     * 渲染一页回复的 HTML 片段，用于追加到已显示的主题文档末尾
+     */
+    public String renderReplyPage(ReplyPage replies, int totalPages, int firstReplyNumber) {
+        Map<String, Object> scope = createScope();
+        putReplies(scope, replies, totalPages, firstReplyNumber);
+        return execute(REPLIES_TEMPLATE, scope);
+    }
+
+    /**
+     * 渲染纯文本消息（加载中、错误提示等）
+     */
+    public String renderMessage(String text) {
+        V2EXSettings settings = this.settings.get();
+        return "<html><body style=\"font-family: '" + cssFontFamily(settings.fontFamily) + "'; font-size: " + settings.fontSize
+                + "pt; color: " + toHex(textColor(settings)) + "; padding: 8px;\">"
+                + escapeText(text) + "</body></html>";
+    }
+
+    /**
+     * 回复条目，供模板的 {{#replies}} 区块使用
+     */
+    public static List<Map<String, Object>> replyItems(ReplyPage replies, int firstReplyNumber) {
+        List<Map<String, Object>> items = new ArrayList<>(replies.replies.size());
+        int number = firstReplyNumber;
+        for (Reply reply : replies.replies) {
+            Map<String, Object> item = new HashMap<>(4);
+            item.put("number", number++);
+            item.put("author", reply.author);
+            item.put("content", contentHtml(reply.contentRendered, reply.content));
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static void putReplies(Map<String, Object> scope, ReplyPage replies, int totalPages,
+                                   int firstReplyNumber) {
+        scope.put("currentPage", replies.page);
+        scope.put("totalPages", totalPages);
+        scope.put("replies", replyItems(replies, firstReplyNumber));
+    }
+
+    /**
+     * 优先使用 V2EX 渲染好的 HTML，没有时转义纯文本
+     */
+    private static String contentHtml(String rendered, String plain) {
+        return rendered != null && !rendered.isEmpty() ? rendered : escapeText(plain);
+    }
+
+    private static String escapeText(String text) {
+        return StringUtil.escapeXmlEntities(text == null ? "" : text).replace("\n", "<br>");
+    }
+
+    /**
+     * 模板公共变量：字体、字号、字重和颜色
+     */
+    private Map<String, Object> createScope() {
+        V2EXSettings settings = this.settings.get();
+        Map<String, Object> scope = new HashMap<>();
+        scope.put("fontFamily", cssFontFamily(settings.fontFamily));
+        scope.put("fontSize", settings.fontSize);
+        scope.put("titleWeight", "normal".equals(settings.titleWeight) ? "normal" : "bold");
+        scope.put("fontColor", toHex(textColor(settings)));
+        return scope;
+    }
+
+    /**
+     * 字体名放进样式中的单引号字符串，去掉引号、反斜杠、分号、尖括号、花括号和控制字符，
+     * 设置文件被改写时也不能跳出样式或插入标签
+     */
+    static String cssFontFamily(String fontFamily) {
+        if (fontFamily == null) {
+            return "";
+        }
+        StringBuilder safe = new StringBuilder(fontFamily.length());
+        for (int i = 0; i < fontFamily.length(); i++) {
+            char ch = fontFamily.charAt(i);
+            if (ch >= ' ' && "'\"\\;<>{}&".indexOf(ch) < 0) {
+                safe.append(ch);
+            }
+        }
+        return safe.toString();
+    }
+
+    /**
+     * 黑色使用深灰色显示，与列表保持一致
+     */
+    private static Color textColor(V2EXSettings settings) {
+        return Color.BLACK.equals(settings.fontColor) ? new Color(0x66, 0x66, 0x66) : settings.fontColor;
+    }
+
+    private static String toHex(Color color) {
+        return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    private String execute(String name, Map<String, Object> scope) {
+        StringWriter writer = new StringWriter(4096);
+        templates.computeIfAbsent(name, this::compile).execute(writer, scope);
+        return writer.toString();
+    }
+
+    /**
+     * 从插件资源编译模板，模板中引用的子模板（{{> name}}）由 openTemplate 解析
+     */
+    private Mustache compile(String name) {
+        try (Reader reader = openTemplate(name)) {
+            if (reader == null) {
+                throw new IllegalStateException("模板不存在: " + name);
+            }
+            return factory.compile(reader, name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 打开插件资源中的模板，不存在时返回 null
+     */
+    private static @Nullable Reader openTemplate(String name) {
+        String path = name.startsWith("/") ? name.substring(1) : name;
+        InputStream stream = TopicHtmlRenderer.class.getResourceAsStream("/templates/" + path);
+        return stream == null ? null : new InputStreamReader(stream, StandardCharsets.UTF_8);
+    }
+}
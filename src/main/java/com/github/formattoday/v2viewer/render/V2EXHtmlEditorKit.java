@@ -0,0 +1,29 @@
+package com.github.formattoday.v2viewer.render;
+
+import javax.swing.text.Element;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.View;
+import javax.swing.text.ViewFactory;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLEditorKit;
+
+/**
+ * 主题内容使用的 HTML 编辑器套件
+ * 图片交给 AsyncImageView 异步加载，其余元素沿用默认视图
+ */
+public class V2EXHtmlEditorKit extends HTMLEditorKit {
+    private static final ViewFactory FACTORY = new HTMLFactory() {
+        @Override
+        public View create(Element elem) {
+            if (elem.getAttributes().getAttribute(StyleConstants.NameAttribute) == HTML.Tag.IMG) {
+                return new AsyncImageView(elem);
+            }
+            return super.create(elem);
+        }
+    };
+
+    @Override
+    public ViewFactory getViewFactory() {
+        return FACTORY;
+    }
+}
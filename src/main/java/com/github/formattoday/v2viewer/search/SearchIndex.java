@@ -0,0 +1,618 @@
+package com.github.formattoday.v2viewer.search;
+
+import com.github.formattoday.v2viewer.model.Reply;
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地全文搜索索引
+ * 对看过和预取过的主题、回复建立倒排索引（分词见 SearchTokenizer），按 BM25 排序，完全离线。
+ * 倒排表按文档号递增追加，以变长整数编码的差值保存，内存和磁盘上都很紧凑；
+ * 同一主题或楼层的内容变化后追加为新文档，旧文档标记为已删除，查询时跳过，已删除的文档较多时压实；
+ * 索引保存在插件数据目录下，修改后延迟写盘；在设置中关闭索引时清空内存和磁盘上的索引。
+ * 所有状态只在索引线程上访问，查询与建索引串行执行，不需要加锁
+ */
+public final class SearchIndex implements V2EXSettings.SettingsChangeListener, Disposable {
+    private static final Logger LOG = Logger.getInstance(SearchIndex.class);
+
+    private static final int MAGIC = 0x56325349;    // "V2SI"
+    private static final int VERSION = 3;            // 2: 中日韩文字另建单字索引；3: 记录内容摘要和已删除文档
+    private static final int MAX_DOCS = 500_000;     // 文档数上限（不含已删除的文档），超过后不再索引新内容
+    private static final int MIN_COMPACT_DELETED = 1024;  // 已删除的文档至少有这么多且超过四分之一时压实
+    private static final int SNIPPET_CHARS = 120;    // 摘要长度
+    private static final int MAX_RESULTS = 50;       // 返回的结果数上限
+    private static final long SAVE_DELAY_SECONDS = 30;
+    private static final float K1 = 1.2f;            // BM25 词频饱和参数
+    private static final float B = 0.75f;            // BM25 文档长度归一化参数
+
+    private final Path file = Path.of(PathManager.getSystemPath(), "v2ex-viewer", "search", "index.bin");
+    private final ExecutorService worker =
+            AppExecutorUtil.createBoundedApplicationPoolExecutor("V2EX Search Index", 1);
+
+    // 索引，只在 worker 上访问
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, Integer> docIds = new HashMap<>();      // (主题ID, 楼层) -> 文档号
+    private final Map<Integer, String> titles = new HashMap<>();    // 主题ID -> 标题
+    private int[] docTopic = new int[1024];     // 文档所属主题
+    private int[] docFloor = new int[1024];     // 文档楼层，0 为主题正文
+    private int[] docLength = new int[1024];    // 文档词数
+    private int[] docHash = new int[1024];      // 文档内容的哈希，内容变化时重新索引
+    private String[] snippets = new String[1024];
+    private final BitSet deleted = new BitSet();  // 被新内容替换的文档
+    private int docCount;           // 文档号上限，含已删除的文档
+    private int deletedCount;
+    private long totalLength;       // 未删除文档词数之和
+    private boolean loaded;
+    private boolean dirty;          // 有未写盘的修改
+    private boolean saveScheduled;
+    private boolean capReported;    // 已记录达到文档数上限
+    private boolean disposed;
+    private volatile boolean enabled;  // 当前设置是否启用索引
+
+    // 统计，可在任意线程读取
+    private volatile int statDocs;
+    private volatile int statTerms;
+    private volatile long queries;
+    private volatile long lastQueryMicros;
+
+    /**
+     * 搜索结果
+     *
+     * @param topicId 主题ID
+     * @param floor   回复楼层，0 表示主题正文
+     * @param title   主题标题，未知时为 null
+     * @param snippet 内容开头的摘要
+     * @param score   相关度
+     */
+    public record Hit(int topicId, int floor, String title, String snippet, float score) {
+    }
+
+    /**
+     * 一次查询的结果
+     *
+     * @param hits   按相关度排序的结果
+     * @param docs   索引中的文档数
+     * @param micros 查询耗时（微秒）
+     */
+    public record Result(List<Hit> hits, int docs, long micros) {
+    }
+
+    /**
+     * 倒排表：按文档号递增的 (文档号差值, 词频) 变长整数序列
+     */
+    private static final class Postings {
+        byte[] data = new byte[8];
+        int size;       // 已用字节数
+        int df;         // 包含该词的文档数
+        int lastDoc;    // 最后追加的文档号
+
+        void add(int doc, int tf) {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(tf);
+            lastDoc = doc;
+            df++;
+        }
+
+        /**
+         * 按新的文档号重写，新文档号为 -1 的文档被丢弃
+         */
+        void remap(int[] newIds) {
+            byte[] old = data;
+            int oldSize = size;
+            data = new byte[8];
+            size = 0;
+            df = 0;
+            lastDoc = 0;
+            int position = 0;
+            int doc = 0;
+            while (position < oldSize) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = old[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int tf = 0;
+                shift = 0;
+                do {
+                    b = old[position++];
+                    tf |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                if (newIds[doc] >= 0) {
+                    add(newIds[doc], tf);
+                }
+            }
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    public SearchIndex() {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        enabled = settings.searchIndexEnabled;
+        settings.addChangeListener(this);
+    }
+
+    /**
+     * 获取实例
+     */
+    public static SearchIndex getInstance() {
+        return ApplicationManager.getApplication().getService(SearchIndex.class);
+    }
+
+    /**
+     * 在后台索引主题正文，内容未变的跳过，有变化时替换旧内容
+     */
+    public void addTopic(Topic topic) {
+        if (!V2EXSettings.getInstance().searchIndexEnabled) {
+            return;
+        }
+        enqueue(() -> {
+            ensureLoaded();
+            titles.put(topic.id, topic.title);
+            index(topic.id, 0, topic.title + "\n" + topic.content);
+        });
+    }
+
+    /**
+     * 在后台索引一页回复，内容未变的楼层跳过，有变化时替换旧内容
+     */
+    public void addReplies(ReplyPage page) {
+        if (!V2EXSettings.getInstance().searchIndexEnabled || page.replies.isEmpty()) {
+            return;
+        }
+        enqueue(() -> {
+            ensureLoaded();
+            int firstFloor = (page.page - 1) * ReplyPage.PAGE_SIZE + 1;
+            for (int i = 0; i < page.replies.size(); i++) {
+                Reply reply = page.replies.get(i);
+                index(page.topicId, firstFloor + i, reply.author + "\n" + reply.content);
+            }
+        });
+    }
+
+    /**
+     * 搜索，在索引线程上执行
+     * 优先返回包含全部查询词的文档，没有时退回到包含任一查询词的文档
+     */
+    public CompletableFuture<Result> search(String query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                ensureLoaded();
+                long start = System.nanoTime();
+                List<Hit> hits = rank(new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenizeQuery(query))));
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                queries++;
+                lastQueryMicros = micros;
+                return new Result(hits, docCount - deletedCount, micros);
+            }, worker);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        enqueue(() -> {
+            ensureLoaded();
+            reset();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warn("删除搜索索引失败", e);
+            }
+        });
+    }
+
+    /**
+     * 设置变更回调，关闭索引时清空已有的索引
+     */
+    @Override
+    public void onSettingsChanged() {
+        boolean nowEnabled = V2EXSettings.getInstance().searchIndexEnabled;
+        if (enabled && !nowEnabled) {
+            LOG.info("搜索索引已关闭，清空索引");
+            clear();
+        }
+        enabled = nowEnabled;
+    }
+
+    /**
+     * 索引统计
+     */
+    public String getStats() {
+        return String.format("文档 %d，词项 %d，查询 %d，上次查询 %.2f ms",
+                statDocs, statTerms, queries, lastQueryMicros / 1000.0);
+    }
+
+    private void index(int topicId, int floor, String text) {
+        if (deletedCount >= MIN_COMPACT_DELETED && deletedCount > docCount / 4) {
+            compact();
+        }
+        long key = ((long) topicId << 32) | (floor & 0xFFFFFFFFL);
+        int hash = text.hashCode();
+        Integer existing = docIds.get(key);
+        if (existing != null && docHash[existing] == hash) {
+            return;
+        }
+        // 替换已有文档不增加文档数，达到上限后仍可更新
+        if (existing == null && docCount - deletedCount >= MAX_DOCS) {
+            if (!capReported) {
+                capReported = true;
+                LOG.info("搜索索引已达 " + MAX_DOCS + " 条上限，不再索引新内容");
+            }
+            return;
+        }
+
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        if (existing != null) {
+            // 倒排表只能追加，旧文档留在倒排表中，查询时跳过
+            deleted.set(existing);
+            deletedCount++;
+            totalLength -= docLength[existing];
+        }
+
+        int doc = docCount++;
+        if (doc == docTopic.length) {
+            int capacity = docTopic.length * 2;
+            docTopic = Arrays.copyOf(docTopic, capacity);
+            docFloor = Arrays.copyOf(docFloor, capacity);
+            docLength = Arrays.copyOf(docLength, capacity);
+            docHash = Arrays.copyOf(docHash, capacity);
+            snippets = Arrays.copyOf(snippets, capacity);
+        }
+        docTopic[doc] = topicId;
+        docFloor[doc] = floor;
+        docLength[doc] = tokens.size();
+        docHash[doc] = hash;
+        snippets[doc] = snippet(text);
+        docIds.put(key, doc);
+        totalLength += tokens.size();
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+        }
+        updateStats();
+        markDirty();
+    }
+
+    /**
+     * 按 BM25 计算相关度并取前 MAX_RESULTS 个
+     */
+    private List<Hit> rank(List<String> queryTerms) {
+        int liveDocs = docCount - deletedCount;
+        if (queryTerms.isEmpty() || liveDocs == 0) {
+            return List.of();
+        }
+        float[] scores = new float[docCount];
+        byte[] matched = new byte[docCount];
+        float averageLength = Math.max(1f, (float) totalLength / liveDocs);
+        int required = 0;
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            required++;
+            if (postings == null) {
+                continue;
+            }
+            // 已删除的文档仍计入 df，替换不多时影响很小
+            float idf = (float) Math.log(1 + Math.max(0, liveDocs - postings.df + 0.5) / (postings.df + 0.5));
+            byte[] data = postings.data;
+            int position = 0;
+            int doc = 0;
+            while (position < postings.size) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int tf = 0;
+                shift = 0;
+                do {
+                    b = data[position++];
+                    tf |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * docLength[doc] / averageLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                if (matched[doc] < Byte.MAX_VALUE) {
+                    matched[doc]++;
+                }
+            }
+        }
+
+        int minMatched = Math.min(required, Byte.MAX_VALUE);
+        List<Hit> hits = topHits(scores, matched, minMatched);
+        return hits.isEmpty() && minMatched > 1 ? topHits(scores, matched, 1) : hits;
+    }
+
+    /**
+     * 压实：去掉已删除的文档，其余文档按原顺序重新编号并重写倒排表
+     */
+    private void compact() {
+        long start = System.nanoTime();
+        int before = docCount;
+        int[] newIds = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                newIds[doc] = -1;
+                continue;
+            }
+            newIds[doc] = live;
+            docTopic[live] = docTopic[doc];
+            docFloor[live] = docFloor[doc];
+            docLength[live] = docLength[doc];
+            docHash[live] = docHash[doc];
+            snippets[live] = snippets[doc];
+            live++;
+        }
+        Arrays.fill(snippets, live, docCount, null);
+        terms.values().removeIf(postings -> {
+            postings.remap(newIds);
+            return postings.df == 0;
+        });
+        docIds.replaceAll((key, doc) -> newIds[doc]);
+        deleted.clear();
+        deletedCount = 0;
+        docCount = live;
+        updateStats();
+        markDirty();
+        LOG.info(String.format("搜索索引压实: %d -> %d 文档，%d ms", before, live,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private List<Hit> topHits(float[] scores, byte[] matched, int minMatched) {
+        PriorityQueue<Integer> top = new PriorityQueue<>(MAX_RESULTS + 1,
+                (a, b) -> matched[a] != matched[b] ? Integer.compare(matched[a], matched[b])
+                        : Float.compare(scores[a], scores[b]));
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (matched[doc] >= minMatched) {
+                top.add(doc);
+                if (top.size() > MAX_RESULTS) {
+                    top.poll();
+                }
+            }
+        }
+        Hit[] hits = new Hit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int doc = top.poll();
+            hits[i] = new Hit(docTopic[doc], docFloor[doc], titles.get(docTopic[doc]), snippets[doc], scores[doc]);
+        }
+        return List.of(hits);
+    }
+
+    private static String snippet(String text) {
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        return collapsed.length() <= SNIPPET_CHARS ? collapsed : collapsed.substring(0, SNIPPET_CHARS) + "…";
+    }
+
+    private void reset() {
+        terms.clear();
+        docIds.clear();
+        titles.clear();
+        docTopic = new int[1024];
+        docFloor = new int[1024];
+        docLength = new int[1024];
+        docHash = new int[1024];
+        snippets = new String[1024];
+        deleted.clear();
+        docCount = 0;
+        deletedCount = 0;
+        totalLength = 0;
+        dirty = false;
+        capReported = false;
+        updateStats();
+    }
+
+    private void updateStats() {
+        statDocs = docCount - deletedCount;
+        statTerms = terms.size();
+    }
+
+    /**
+     * 提交到索引线程；关闭后调用方（如网络线程上的解析）可能仍在提交，此时直接丢弃
+     */
+    private void enqueue(Runnable task) {
+        try {
+            worker.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("搜索索引已关闭，丢弃任务");
+        }
+    }
+
+    /**
+     * 标记有修改，延迟写盘以合并短时间内的多次修改
+     */
+    private void markDirty() {
+        dirty = true;
+        if (saveScheduled || disposed) {
+            return;
+        }
+        saveScheduled = true;
+        AppExecutorUtil.getAppScheduledExecutorService().schedule(() -> enqueue(() -> {
+            saveScheduled = false;
+            save();
+        }), SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 首次使用时读取磁盘上的索引，文件损坏时从空索引开始
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("格式不匹配");
+            }
+            if (in.readInt() != VERSION) {
+                // 分词规则变化，旧索引作废，之后看过的内容重新索引
+                LOG.info("搜索索引版本变化，重新建立");
+                return;
+            }
+            int docs = in.readInt();
+            int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, docs)) * 2);
+            docTopic = new int[capacity];
+            docFloor = new int[capacity];
+            docLength = new int[capacity];
+            docHash = new int[capacity];
+            snippets = new String[capacity];
+            for (int doc = 0; doc < docs; doc++) {
+                docTopic[doc] = in.readInt();
+                docFloor[doc] = in.readInt();
+                docLength[doc] = in.readInt();
+                docHash[doc] = in.readInt();
+                snippets[doc] = in.readUTF();
+                if (in.readBoolean()) {
+                    deleted.set(doc);
+                    deletedCount++;
+                    continue;
+                }
+                docIds.put(((long) docTopic[doc] << 32) | (docFloor[doc] & 0xFFFFFFFFL), doc);
+                totalLength += docLength[doc];
+            }
+            docCount = docs;
+            int titleCount = in.readInt();
+            for (int i = 0; i < titleCount; i++) {
+                titles.put(in.readInt(), in.readUTF());
+            }
+            int termCount = in.readInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                Postings postings = new Postings();
+                postings.df = in.readInt();
+                postings.lastDoc = in.readInt();
+                postings.size = in.readInt();
+                postings.data = new byte[Math.max(8, postings.size)];
+                in.readFully(postings.data, 0, postings.size);
+                terms.put(term, postings);
+            }
+            updateStats();
+            LOG.info(String.format("搜索索引载入: %d 文档，%d 词项，%d ms", docCount - deletedCount, terms.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        } catch (NoSuchFileException e) {
+            // 尚未建立索引
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("读取搜索索引失败，将重新建立", e);
+            reset();
+        }
+    }
+
+    /**
+     * 写入临时文件后原子替换
+     */
+    private void save() {
+        if (!dirty) {
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(docCount);
+                for (int doc = 0; doc < docCount; doc++) {
+                    out.writeInt(docTopic[doc]);
+                    out.writeInt(docFloor[doc]);
+                    out.writeInt(docLength[doc]);
+                    out.writeInt(docHash[doc]);
+                    out.writeUTF(snippets[doc]);
+                    out.writeBoolean(deleted.get(doc));
+                }
+                out.writeInt(titles.size());
+                for (Map.Entry<Integer, String> entry : titles.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+                out.writeInt(terms.size());
+                for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                    Postings postings = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(postings.df);
+                    out.writeInt(postings.lastDoc);
+                    out.writeInt(postings.size);
+                    out.write(postings.data, 0, postings.size);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            LOG.warn("保存搜索索引失败", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        V2EXSettings.getInstance().removeChangeListener(this);
+        Future<?> flush = worker.submit(() -> {
+            disposed = true;
+            save();
+        });
+        worker.shutdown();
+        try {
+            flush.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            LOG.warn("关闭时保存搜索索引失败", e);
+        }
+    }
+}
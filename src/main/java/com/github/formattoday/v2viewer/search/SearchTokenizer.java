@@ -0,0 +1,91 @@
+package com.github.formattoday.v2viewer.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 搜索分词
+ * 拉丁字母和数字按连续的词切分并转为小写；中日韩文字没有分隔符，按相邻两字切分（bigram）。
+ * 建索引时每个字还单独作为一个词，查询时只有单独出现的一个字才按单字查，
+ * 这样单字查询能命中长句中的字，多字查询仍按相邻两字精确匹配
+ */
+final class SearchTokenizer {
+    private static final int MAX_WORD_LENGTH = 40;  // 超过此长度的词（多为链接、哈希）不索引
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 切分要索引的文本，结果按出现顺序排列，可能有重复
+     */
+    static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 切分查询，结果按出现顺序排列，可能有重复
+     */
+    static List<String> tokenizeQuery(String query) {
+        return tokenize(query, false);
+    }
+
+    /**
+     * @param allUnigrams 连续段中的每个字都输出单字，为 false 时只输出单独出现的字
+     */
+    private static List<String> tokenize(String text, boolean allUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        int previousCjk = -1;   // CJK 连续段中的上一个字
+        int cjkRun = 0;         // CJK 连续段长度
+
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                if (allUnigrams) {
+                    tokens.add(new String(Character.toChars(codePoint)));
+                }
+                if (previousCjk >= 0) {
+                    tokens.add(new StringBuilder(2).appendCodePoint(previousCjk).appendCodePoint(codePoint).toString());
+                }
+                previousCjk = codePoint;
+                cjkRun++;
+                continue;
+            }
+
+            if (cjkRun == 1 && !allUnigrams) {
+                tokens.add(new String(Character.toChars(previousCjk)));
+            }
+            previousCjk = -1;
+            cjkRun = 0;
+            if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flushWord(word, tokens);
+            }
+        }
+
+        flushWord(word, tokens);
+        if (cjkRun == 1 && !allUnigrams) {
+            tokens.add(new String(Character.toChars(previousCjk)));
+        }
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0 && word.length() <= MAX_WORD_LENGTH) {
+            tokens.add(word.toString());
+        }
+        word.setLength(0);
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.formattoday.v2viewer.settings;
 
+import com.github.formattoday.v2viewer.network.V2EXApi;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
@@ -30,6 +31,12 @@ public class V2EXSettings implements PersistentStateComponent<V2EXSettings> {
     public String proxyHost = "127.0.0.1";  // 代理主机地址
     public int proxyPort = 10808;           // 代理端口
     public String proxyType = "SOCKS";      // 代理类型（SOCKS/HTTP）
+    public List<String> proxyRoutes = new ArrayList<>();  // 备用路由，每项为 socks://主机:端口、http://主机:端口 或 direct
+
+    // 连接设置
+    public boolean prewarmConnections = true;  // 工具窗口显示时预先建立连接
+    public int keepAliveMinutes = 5;           // 空闲连接保活时间（分钟）
+    public int dnsCacheSeconds = 300;          // DNS 解析结果缓存时间（秒），0 表示不缓存
 
     // 监听器列表
     private final List<SettingsChangeListener> listeners = new ArrayList<>();
@@ -37,6 +44,40 @@ public class V2EXSettings implements PersistentStateComponent<V2EXSettings> {
     public String fontFamily = "仿宋";  // 默认字体
     public int fontSize = 14;                      // 默认字号
     public Color fontColor = JBColor.BLACK;          // 默认颜色
+    public String titleWeight = "bold";              // 主题标题字重（normal/bold）
+
+    // 缓存设置
+    public int httpCacheSizeMb = 20;        // 磁盘缓存大小（MB），重启后生效
+    public int memoryCacheSizeMb = 8;       // 解析结果内存缓存大小（MB）
+    public int imageDiskCacheMb = 50;       // 图片原图磁盘缓存大小（MB），重启后生效
+    public int imageMemoryCacheMb = 16;     // 已解码图片内存缓存大小（MB）
+    public boolean archiveEnabled = true;   // 归档看过的主题供离线查看
+    public int archiveSizeMb = 50;          // 离线归档大小上限（MB）
+    public int hotListMaxAge = 60;          // 热门列表新鲜期（秒）
+    public int latestListMaxAge = 30;       // 最新列表新鲜期（秒）
+    public int nodeListMaxAge = 120;        // 节点列表新鲜期（秒）
+    public int topicMaxAge = 300;           // 主题详情新鲜期（秒）
+    public int repliesMaxAge = 60;          // 回复列表新鲜期（秒）
+
+    // 阅读设置
+    public boolean infiniteScrollReplies = true;  // 滚动到底部时自动追加下一页回复
+    public boolean loadImages = true;             // 显示内容中的图片
+
+    // 预取设置
+    public boolean prefetchReplyPages = true;     // 阅读时预取下一页回复
+    public boolean prefetchPreviousPage = false;  // 同时预取上一页回复
+    public boolean prefetchVisibleTopics = true;  // 预取列表中可见和悬停的主题
+    public boolean warmAllNodes = false;          // 打开工具窗口时并行加载所有节点列表并定时刷新
+    public int warmupConcurrency = 2;             // 节点列表预热并发数
+    public int warmupIntervalMinutes = 5;         // 节点列表预热间隔（分钟）
+
+    // 搜索设置
+    public boolean searchIndexEnabled = true;     // 为看过和预取的主题、回复建立本地搜索索引
+
+    // 调试设置
+    public boolean debugTraceEnabled = false;     // 是否记录调试追踪
+    public int debugTraceSamplePercent = 100;     // 追踪采样率（百分比）
+    public String apiBaseUrl = V2EXApi.DEFAULT_BASE_URL;  // API 地址，可指向本地回放服务器
 
     /**
      * 添加设置变更监听器
@@ -1,22 +1,35 @@
 package com.github.formattoday.v2viewer.settings;
 
 import com.github.formattoday.v2viewer.V2ViewerBundle;
+import com.github.formattoday.v2viewer.network.ProxyRoute;
+import com.github.formattoday.v2viewer.network.ProxyRoutes;
+import com.github.formattoday.v2viewer.network.V2EXHttpClientService;
+import com.github.formattoday.v2viewer.network.V2EXRestApi;
 import com.intellij.ide.BrowserUtil;
 import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.ui.ColorPanel;
 import com.intellij.ui.IdeBorderFactory;
 import com.intellij.ui.JBIntSpinner;
 import com.intellij.ui.components.ActionLink;
 import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBRadioButton;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
 import com.intellij.ui.components.JBTextField;
 import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.UIUtil;
+import okhttp3.HttpUrl;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * V2EX 设置界面类
@@ -28,11 +41,40 @@ public class V2EXSettingsConfigurable implements Configurable {
     private JBCheckBox useProxyCheckBox;      // 代理开关
     private JBTextField proxyHostField;       // 代理主机输入框
     private JBTextField proxyPortField;       // 代理端口输入框
+    private JBTextArea proxyRoutesArea;       // 备用路由，每行一条
+    private JBLabel routeStatusLabel;         // 路由状态
     private JBRadioButton httpProxyRadio;     // HTTP 代理选项
     private JBRadioButton socksProxyRadio;    // SOCKS 代��选项
+    private JBCheckBox prewarmCheckBox;       // 连接预热开关
+    private JBIntSpinner keepAliveSpinner;    // 连接保活时间
+    private JBIntSpinner dnsCacheSpinner;     // DNS 缓存时间
     private JComboBox<String> fontFamilyCombo;// 字体选择
     private JBIntSpinner fontSizeSpinner;     // 字号选择
     private ColorPanel fontColorPanel;        // 字体颜色选择
+    private JComboBox<String> titleWeightCombo;// 标题字重选择
+    private JBIntSpinner cacheSizeSpinner;    // 磁盘缓存大小
+    private JBIntSpinner memoryCacheSpinner;  // 内存缓存大小
+    private JBIntSpinner imageDiskSpinner;    // 图片磁盘缓存大小
+    private JBIntSpinner imageMemorySpinner;  // 图片内存缓存大小
+    private JBCheckBox archiveCheckBox;       // 离线归档开关
+    private JBIntSpinner archiveSizeSpinner;  // 离线归档大小
+    private JBIntSpinner hotMaxAgeSpinner;    // 热门列表新鲜期
+    private JBIntSpinner latestMaxAgeSpinner; // 最新列表新鲜期
+    private JBIntSpinner nodeMaxAgeSpinner;   // 节点列表新鲜期
+    private JBIntSpinner topicMaxAgeSpinner;  // 主题详情新鲜期
+    private JBIntSpinner repliesMaxAgeSpinner;// 回复列表新鲜期
+    private JBCheckBox infiniteScrollCheckBox;// 滚动自动加载回复
+    private JBCheckBox loadImagesCheckBox;    // 显示图片
+    private JBCheckBox prefetchPagesCheckBox; // 预取下一页回复
+    private JBCheckBox prefetchPrevCheckBox;  // 预取上一页回复
+    private JBCheckBox prefetchTopicsCheckBox;// 预取可见主题
+    private JBCheckBox warmupCheckBox;        // 节点列表预热开关
+    private JBIntSpinner warmupConcurrencySpinner;// 节点列表预热并发数
+    private JBIntSpinner warmupIntervalSpinner;   // 节点列表预热间隔
+    private JBCheckBox searchIndexCheckBox;   // 本地搜索索引开关
+    private JBCheckBox debugTraceCheckBox;    // 调试追踪开关
+    private JBIntSpinner traceSampleSpinner;  // 追踪采样率
+    private JBTextField apiBaseUrlField;      // API 地址
     private final V2EXSettings settings;      // 设置实例
 
     /**
@@ -76,6 +118,18 @@ public class V2EXSettingsConfigurable implements Configurable {
         c.gridy = 2;
         mainPanel.add(createProxyPanel(), c);
 
+        // 创建连接设置面板
+        c.gridy = 3;
+        mainPanel.add(createConnectionPanel(), c);
+
+        // 创建缓存设置面板
+        c.gridy = 4;
+        mainPanel.add(createCachePanel(), c);
+
+        // 创建调试设置面板
+        c.gridy = 5;
+        mainPanel.add(createDebugPanel(), c);
+
         return mainPanel;
     }
 
@@ -117,7 +171,7 @@ public class V2EXSettingsConfigurable implements Configurable {
      */
     private JPanel createFontPanel() {
         JPanel panel = new JPanel(new GridBagLayout());
-        panel.setBorder(IdeBorderFactory.createTitledBorder("字体设置"));
+        panel.setBorder(IdeBorderFactory.createTitledBorder(V2ViewerBundle.message("settings.font")));
 
         GridBagConstraints c = new GridBagConstraints();
         c.fill = GridBagConstraints.HORIZONTAL;
@@ -126,7 +180,7 @@ public class V2EXSettingsConfigurable implements Configurable {
         // 添加字体选择
         c.gridx = 0;
         c.gridy = 0;
-        panel.add(new JLabel("字体:"), c);
+        panel.add(new JLabel(V2ViewerBundle.message("settings.font.family") + ":"), c);
 
         GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
         String[] fontNames = ge.getAvailableFontFamilyNames();
@@ -140,7 +194,7 @@ public class V2EXSettingsConfigurable implements Configurable {
         c.gridx = 0;
         c.gridy = 1;
         c.weightx = 0;
-        panel.add(new JLabel("字号:"), c);
+        panel.add(new JLabel(V2ViewerBundle.message("settings.font.size") + ":"), c);
 
         fontSizeSpinner = new JBIntSpinner(settings.fontSize, 8, 72, 1);
         c.gridx = 1;
@@ -149,13 +203,23 @@ public class V2EXSettingsConfigurable implements Configurable {
         // 添加颜色选择
         c.gridx = 0;
         c.gridy = 2;
-        panel.add(new JLabel("颜色:"), c);
+        panel.add(new JLabel(V2ViewerBundle.message("settings.font.color") + ":"), c);
 
         fontColorPanel = new ColorPanel();
         fontColorPanel.setSelectedColor(settings.fontColor);
         c.gridx = 1;
         panel.add(fontColorPanel, c);
 
+        // 添加标题字重选择
+        c.gridx = 0;
+        c.gridy = 3;
+        panel.add(new JLabel(V2ViewerBundle.message("settings.font.title.weight") + ":"), c);
+
+        titleWeightCombo = new JComboBox<>(new String[]{"bold", "normal"});
+        titleWeightCombo.setSelectedItem(settings.titleWeight);
+        c.gridx = 1;
+        panel.add(titleWeightCombo, c);
+
         return panel;
     }
 
@@ -210,6 +274,41 @@ public class V2EXSettingsConfigurable implements Configurable {
         c.weightx = 1.0;
         panel.add(proxyPortField, c);
 
+        // 添加备用路由设置
+        c.gridy = 4;
+        c.gridx = 0;
+        c.weightx = 0;
+        c.anchor = GridBagConstraints.NORTHWEST;
+        panel.add(new JLabel(V2ViewerBundle.message("settings.proxy.routes") + ":"), c);
+
+        proxyRoutesArea = new JBTextArea(String.join("\n", settings.proxyRoutes));
+        proxyRoutesArea.setRows(3);
+        c.gridx = 1;
+        c.weightx = 1.0;
+        panel.add(new JBScrollPane(proxyRoutesArea), c);
+
+        c.gridy = 5;
+        JBLabel hintLabel = new JBLabel(V2ViewerBundle.message("settings.proxy.routes.hint"));
+        hintLabel.setForeground(UIUtil.getContextHelpForeground());
+        panel.add(hintLabel, c);
+
+        // 添加路由状态
+        c.gridy = 6;
+        c.gridx = 0;
+        c.weightx = 0;
+        panel.add(new JLabel(V2ViewerBundle.message("settings.proxy.status") + ":"), c);
+
+        routeStatusLabel = new JBLabel();
+        ActionLink checkLink = new ActionLink(V2ViewerBundle.message("settings.proxy.check"),
+                (ActionListener) e -> checkRoutes());
+        JPanel statusPanel = new JPanel(new BorderLayout(JBUI.scale(8), 0));
+        statusPanel.add(routeStatusLabel, BorderLayout.CENTER);
+        statusPanel.add(checkLink, BorderLayout.EAST);
+        c.gridx = 1;
+        c.weightx = 1.0;
+        panel.add(statusPanel, c);
+        updateRouteStatus();
+
         // 设置代理字段状态
         updateProxyFieldsState();
         useProxyCheckBox.addActionListener(e -> updateProxyFieldsState());
@@ -217,6 +316,185 @@ public class V2EXSettingsConfigurable implements Configurable {
         return panel;
     }
 
+    /**
+     * 创建连接设置面板
+     */
+    private JPanel createConnectionPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(IdeBorderFactory.createTitledBorder(V2ViewerBundle.message("settings.connection")));
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.insets = JBUI.insets(2);
+        c.gridx = 0;
+        c.gridy = 0;
+        c.gridwidth = 2;
+
+        prewarmCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.connection.prewarm"), settings.prewarmConnections);
+        panel.add(prewarmCheckBox, c);
+        c.gridy++;
+        c.gridwidth = 1;
+
+        keepAliveSpinner = new JBIntSpinner(settings.keepAliveMinutes, 1, 60, 1);
+        addRow(panel, c, V2ViewerBundle.message("settings.connection.keepalive"), keepAliveSpinner);
+
+        dnsCacheSpinner = new JBIntSpinner(settings.dnsCacheSeconds, 0, 86400, 60);
+        addRow(panel, c, V2ViewerBundle.message("settings.connection.dns"), dnsCacheSpinner);
+
+        return panel;
+    }
+
+    /**
+     * 创建缓存设置面板
+     */
+    private JPanel createCachePanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(IdeBorderFactory.createTitledBorder(V2ViewerBundle.message("settings.cache")));
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.insets = JBUI.insets(2);
+        c.gridx = 0;
+        c.gridy = 0;
+
+        cacheSizeSpinner = new JBIntSpinner(settings.httpCacheSizeMb, 1, 500, 5);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.size"), cacheSizeSpinner);
+
+        memoryCacheSpinner = new JBIntSpinner(settings.memoryCacheSizeMb, 1, 256, 1);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.memory"), memoryCacheSpinner);
+
+        imageDiskSpinner = new JBIntSpinner(settings.imageDiskCacheMb, 1, 1000, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.image.disk"), imageDiskSpinner);
+
+        imageMemorySpinner = new JBIntSpinner(settings.imageMemoryCacheMb, 1, 512, 4);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.image.memory"), imageMemorySpinner);
+
+        archiveSizeSpinner = new JBIntSpinner(settings.archiveSizeMb, 1, 2000, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.archive.size"), archiveSizeSpinner);
+
+        hotMaxAgeSpinner = new JBIntSpinner(settings.hotListMaxAge, 0, 86400, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.hot"), hotMaxAgeSpinner);
+
+        latestMaxAgeSpinner = new JBIntSpinner(settings.latestListMaxAge, 0, 86400, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.latest"), latestMaxAgeSpinner);
+
+        nodeMaxAgeSpinner = new JBIntSpinner(settings.nodeListMaxAge, 0, 86400, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.node"), nodeMaxAgeSpinner);
+
+        topicMaxAgeSpinner = new JBIntSpinner(settings.topicMaxAge, 0, 86400, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.topic"), topicMaxAgeSpinner);
+
+        repliesMaxAgeSpinner = new JBIntSpinner(settings.repliesMaxAge, 0, 86400, 10);
+        addRow(panel, c, V2ViewerBundle.message("settings.cache.replies"), repliesMaxAgeSpinner);
+
+        // 添加连续阅读和预取开关
+        c.gridx = 0;
+        c.gridwidth = 2;
+        infiniteScrollCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.infinite.scroll"), settings.infiniteScrollReplies);
+        panel.add(infiniteScrollCheckBox, c);
+
+        c.gridy++;
+        loadImagesCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.images.load"), settings.loadImages);
+        panel.add(loadImagesCheckBox, c);
+
+        c.gridy++;
+        archiveCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.archive.enabled"), settings.archiveEnabled);
+        panel.add(archiveCheckBox, c);
+
+        c.gridy++;
+        prefetchPagesCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.prefetch.pages"), settings.prefetchReplyPages);
+        panel.add(prefetchPagesCheckBox, c);
+
+        c.gridy++;
+        prefetchPrevCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.prefetch.previous"), settings.prefetchPreviousPage);
+        panel.add(prefetchPrevCheckBox, c);
+
+        c.gridy++;
+        prefetchTopicsCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.prefetch.topics"), settings.prefetchVisibleTopics);
+        panel.add(prefetchTopicsCheckBox, c);
+
+        c.gridy++;
+        warmupCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.warmup.enabled"), settings.warmAllNodes);
+        panel.add(warmupCheckBox, c);
+        c.gridy++;
+        c.gridwidth = 1;
+
+        warmupConcurrencySpinner = new JBIntSpinner(settings.warmupConcurrency, 1, 6, 1);
+        addRow(panel, c, V2ViewerBundle.message("settings.warmup.concurrency"), warmupConcurrencySpinner);
+
+        warmupIntervalSpinner = new JBIntSpinner(settings.warmupIntervalMinutes, 1, 1440, 1);
+        addRow(panel, c, V2ViewerBundle.message("settings.warmup.interval"), warmupIntervalSpinner);
+
+        c.gridx = 0;
+        c.gridwidth = 2;
+        searchIndexCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.search.enabled"), settings.searchIndexEnabled);
+        panel.add(searchIndexCheckBox, c);
+        c.gridy++;
+        c.gridwidth = 1;
+
+        prefetchPrevCheckBox.setEnabled(prefetchPagesCheckBox.isSelected());
+        archiveSizeSpinner.setEnabled(archiveCheckBox.isSelected());
+        archiveCheckBox.addActionListener(e -> archiveSizeSpinner.setEnabled(archiveCheckBox.isSelected()));
+        prefetchPagesCheckBox.addActionListener(e -> prefetchPrevCheckBox.setEnabled(prefetchPagesCheckBox.isSelected()));
+        updateWarmupFieldsState();
+        warmupCheckBox.addActionListener(e -> updateWarmupFieldsState());
+
+        return panel;
+    }
+
+    /**
+     * 创建调试设置面板
+     */
+    private JPanel createDebugPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(IdeBorderFactory.createTitledBorder(V2ViewerBundle.message("settings.debug")));
+
+        GridBagConstraints c = new GridBagConstraints();
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.insets = JBUI.insets(2);
+        c.gridx = 0;
+        c.gridy = 0;
+        c.gridwidth = 2;
+
+        debugTraceCheckBox = new JBCheckBox(V2ViewerBundle.message("settings.debug.trace"), settings.debugTraceEnabled);
+        panel.add(debugTraceCheckBox, c);
+        c.gridy++;
+        c.gridwidth = 1;
+
+        traceSampleSpinner = new JBIntSpinner(settings.debugTraceSamplePercent, 1, 100, 5);
+        addRow(panel, c, V2ViewerBundle.message("settings.debug.sample"), traceSampleSpinner);
+
+        apiBaseUrlField = new JBTextField(settings.apiBaseUrl);
+        addRow(panel, c, V2ViewerBundle.message("settings.debug.api.url"), apiBaseUrlField);
+
+        traceSampleSpinner.setEnabled(debugTraceCheckBox.isSelected());
+        debugTraceCheckBox.addActionListener(e -> traceSampleSpinner.setEnabled(debugTraceCheckBox.isSelected()));
+
+        return panel;
+    }
+
+    /**
+     * 添加一行 标签 + 输入组件
+     */
+    private static void addRow(JPanel panel, GridBagConstraints c, String label, JComponent component) {
+        c.gridx = 0;
+        c.weightx = 0;
+        panel.add(new JLabel(label + ":"), c);
+        c.gridx = 1;
+        c.weightx = 1.0;
+        panel.add(component, c);
+        c.gridy++;
+    }
+
+    /**
+     * 更新节点列表预热相关字段的启用状态
+     */
+    private void updateWarmupFieldsState() {
+        boolean enabled = warmupCheckBox.isSelected();
+        warmupConcurrencySpinner.setEnabled(enabled);
+        warmupIntervalSpinner.setEnabled(enabled);
+    }
+
     /**
      * 更新代理相关字段的启用状态
      */
@@ -228,6 +506,65 @@ public class V2EXSettingsConfigurable implements Configurable {
         proxyPortField.setEnabled(enabled);
     }
 
+    /**
+     * 显示已保存路由的健康状态，多条路由时标出当前使用的一条
+     */
+    private void updateRouteStatus() {
+        ProxyRoutes routes = V2EXHttpClientService.getInstance().getRoutes();
+        ProxyRoute preferred = routes.getPreferred();
+        boolean failover = routes.getRoutes().size() > 1;
+        StringBuilder html = new StringBuilder("<html>");
+        for (ProxyRoutes.Status status : routes.getStatus()) {
+            if (html.length() > "<html>".length()) {
+                html.append("<br>");
+            }
+            html.append(StringUtil.escapeXmlEntities(status.route().toString()))
+                    .append("&nbsp;&nbsp;")
+                    .append(StringUtil.escapeXmlEntities(describeStatus(status)));
+            if (failover && status.route().equals(preferred)) {
+                html.append(' ').append(V2ViewerBundle.message("settings.proxy.status.preferred"));
+            }
+        }
+        routeStatusLabel.setText(html.append("</html>").toString());
+    }
+
+    private static String describeStatus(ProxyRoutes.Status status) {
+        return switch (status.state()) {
+            case HEALTHY -> V2ViewerBundle.message("settings.proxy.status.healthy", String.valueOf(status.latencyMs()));
+            case FAILED -> V2ViewerBundle.message("settings.proxy.status.failed", status.error());
+            case UNKNOWN -> V2ViewerBundle.message("settings.proxy.status.unknown");
+        };
+    }
+
+    /**
+     * 立即检测已保存的路由，完成后刷新状态
+     */
+    private void checkRoutes() {
+        HttpUrl baseUrl;
+        try {
+            baseUrl = V2EXRestApi.parseBaseUrl(settings.apiBaseUrl);
+        } catch (IllegalArgumentException e) {
+            routeStatusLabel.setText(e.getMessage());
+            return;
+        }
+        routeStatusLabel.setText(V2ViewerBundle.message("settings.proxy.status.checking"));
+        V2EXHttpClientService.getInstance().getRoutes().checkAll(baseUrl)
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(this::updateRouteStatus));
+    }
+
+    /**
+     * 获取填写的备用路由，去掉空行
+     */
+    private List<String> getProxyRoutes() {
+        List<String> routes = new ArrayList<>();
+        for (String line : proxyRoutesArea.getText().split("\n")) {
+            if (!line.isBlank()) {
+                routes.add(line.trim());
+            }
+        }
+        return routes;
+    }
+
     /**
      * 检查设置是否被修改
      */
@@ -238,9 +575,37 @@ public class V2EXSettingsConfigurable implements Configurable {
                 !settings.proxyHost.equals(proxyHostField.getText()) ||
                 settings.proxyPort != getProxyPort() ||
                 !settings.proxyType.equals(getProxyType()) ||
+                !settings.proxyRoutes.equals(getProxyRoutes()) ||
+                settings.prewarmConnections != prewarmCheckBox.isSelected() ||
+                settings.keepAliveMinutes != keepAliveSpinner.getNumber() ||
+                settings.dnsCacheSeconds != dnsCacheSpinner.getNumber() ||
                 !settings.fontFamily.equals(fontFamilyCombo.getSelectedItem()) ||
                 settings.fontSize != fontSizeSpinner.getNumber() ||
-                !settings.fontColor.equals(fontColorPanel.getSelectedColor());
+                !settings.fontColor.equals(fontColorPanel.getSelectedColor()) ||
+                !settings.titleWeight.equals(titleWeightCombo.getSelectedItem()) ||
+                settings.httpCacheSizeMb != cacheSizeSpinner.getNumber() ||
+                settings.memoryCacheSizeMb != memoryCacheSpinner.getNumber() ||
+                settings.imageDiskCacheMb != imageDiskSpinner.getNumber() ||
+                settings.imageMemoryCacheMb != imageMemorySpinner.getNumber() ||
+                settings.archiveEnabled != archiveCheckBox.isSelected() ||
+                settings.archiveSizeMb != archiveSizeSpinner.getNumber() ||
+                settings.hotListMaxAge != hotMaxAgeSpinner.getNumber() ||
+                settings.latestListMaxAge != latestMaxAgeSpinner.getNumber() ||
+                settings.nodeListMaxAge != nodeMaxAgeSpinner.getNumber() ||
+                settings.topicMaxAge != topicMaxAgeSpinner.getNumber() ||
+                settings.repliesMaxAge != repliesMaxAgeSpinner.getNumber() ||
+                settings.infiniteScrollReplies != infiniteScrollCheckBox.isSelected() ||
+                settings.loadImages != loadImagesCheckBox.isSelected() ||
+                settings.prefetchReplyPages != prefetchPagesCheckBox.isSelected() ||
+                settings.prefetchPreviousPage != prefetchPrevCheckBox.isSelected() ||
+                settings.prefetchVisibleTopics != prefetchTopicsCheckBox.isSelected() ||
+                settings.warmAllNodes != warmupCheckBox.isSelected() ||
+                settings.warmupConcurrency != warmupConcurrencySpinner.getNumber() ||
+                settings.warmupIntervalMinutes != warmupIntervalSpinner.getNumber() ||
+                settings.searchIndexEnabled != searchIndexCheckBox.isSelected() ||
+                settings.debugTraceEnabled != debugTraceCheckBox.isSelected() ||
+                settings.debugTraceSamplePercent != traceSampleSpinner.getNumber() ||
+                !settings.apiBaseUrl.equals(apiBaseUrlField.getText().trim());
     }
 
     /**
@@ -265,15 +630,59 @@ public class V2EXSettingsConfigurable implements Configurable {
      * 应用设置更改
      */
     @Override
-    public void apply() {
+    public void apply() throws ConfigurationException {
+        String apiBaseUrl = apiBaseUrlField.getText().trim();
+        try {
+            V2EXRestApi.parseBaseUrl(apiBaseUrl);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e.getMessage());
+        }
+        List<String> proxyRoutes = getProxyRoutes();
+        for (String route : proxyRoutes) {
+            try {
+                ProxyRoute.parse(route);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException(e.getMessage());
+            }
+        }
+
         settings.apiToken = tokenField.getText();
         settings.useProxy = useProxyCheckBox.isSelected();
         settings.proxyHost = proxyHostField.getText();
         settings.proxyPort = getProxyPort();
         settings.proxyType = getProxyType();
+        settings.proxyRoutes = proxyRoutes;
+        settings.prewarmConnections = prewarmCheckBox.isSelected();
+        settings.keepAliveMinutes = keepAliveSpinner.getNumber();
+        settings.dnsCacheSeconds = dnsCacheSpinner.getNumber();
         settings.fontFamily = (String) fontFamilyCombo.getSelectedItem();
         settings.fontSize = fontSizeSpinner.getNumber();
         settings.fontColor = fontColorPanel.getSelectedColor();
+        settings.titleWeight = (String) titleWeightCombo.getSelectedItem();
+        settings.httpCacheSizeMb = cacheSizeSpinner.getNumber();
+        settings.memoryCacheSizeMb = memoryCacheSpinner.getNumber();
+        settings.imageDiskCacheMb = imageDiskSpinner.getNumber();
+        settings.imageMemoryCacheMb = imageMemorySpinner.getNumber();
+        settings.archiveEnabled = archiveCheckBox.isSelected();
+        settings.archiveSizeMb = archiveSizeSpinner.getNumber();
+        settings.hotListMaxAge = hotMaxAgeSpinner.getNumber();
+        settings.latestListMaxAge = latestMaxAgeSpinner.getNumber();
+        settings.nodeListMaxAge = nodeMaxAgeSpinner.getNumber();
+        settings.topicMaxAge = topicMaxAgeSpinner.getNumber();
+        settings.repliesMaxAge = repliesMaxAgeSpinner.getNumber();
+        settings.infiniteScrollReplies = infiniteScrollCheckBox.isSelected();
+        settings.loadImages = loadImagesCheckBox.isSelected();
+        settings.prefetchReplyPages = prefetchPagesCheckBox.isSelected();
+        settings.prefetchPreviousPage = prefetchPrevCheckBox.isSelected();
+        settings.prefetchVisibleTopics = prefetchTopicsCheckBox.isSelected();
+        settings.warmAllNodes = warmupCheckBox.isSelected();
+        settings.warmupConcurrency = warmupConcurrencySpinner.getNumber();
+        settings.warmupIntervalMinutes = warmupIntervalSpinner.getNumber();
+        settings.searchIndexEnabled = searchIndexCheckBox.isSelected();
+        settings.debugTraceEnabled = debugTraceCheckBox.isSelected();
+        settings.debugTraceSamplePercent = traceSampleSpinner.getNumber();
+        settings.apiBaseUrl = apiBaseUrl;
         settings.notifySettingsChanged();
+        updateRouteStatus();
     }
 } 
\ No newline at end of file
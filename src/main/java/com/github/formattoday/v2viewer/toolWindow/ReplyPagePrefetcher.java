@@ -0,0 +1,81 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.model.ReplyPage;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * 回复分页预取器
+ * 阅读第 N 页时在后台预取相邻页，离开主题时取消未完成的请求
+ */
+final class ReplyPagePrefetcher {
+    private static final int MAX_PREFETCHED_PAGES = 4;  // 预取预算：最多保留的页数
+
+    private final Map<Integer, CompletableFuture<ReplyPage>> pages = new LinkedHashMap<>();
+    private int topicId;    // 预取所属主题
+
+    /**
+     * 取出已预取的页，没有或预取失败时返回 null
+     */
+    synchronized CompletableFuture<ReplyPage> take(int topicId, int page) {
+        if (this.topicId != topicId) {
+            return null;
+        }
+        CompletableFuture<ReplyPage> future = pages.remove(page);
+        if (future == null || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future;
+    }
+
+    /**
+     * 预取当前页的下一页（可选上一页），fetcher 返回 null 表示该页无需预取
+     */
+    synchronized void prefetchAround(int topicId, int page, int totalPages, boolean includePrevious,
+                                     IntFunction<CompletableFuture<ReplyPage>> fetcher) {
+        if (this.topicId != topicId) {
+            cancel();
+            this.topicId = topicId;
+        }
+        if (page < totalPages) {
+            prefetch(page + 1, page, fetcher);
+        }
+        if (includePrevious && page > 1) {
+            prefetch(page - 1, page, fetcher);
+        }
+    }
+
+    private void prefetch(int page, int currentPage, IntFunction<CompletableFuture<ReplyPage>> fetcher) {
+        if (pages.containsKey(page)) {
+            return;
+        }
+        // 超出预算时丢弃离当前页最远的预取
+        while (pages.size() >= MAX_PREFETCHED_PAGES) {
+            Integer farthest = pages.keySet().stream()
+                    .max(Comparator.comparingInt(p -> Math.abs(p - currentPage)))
+                    .orElseThrow();
+            pages.remove(farthest).cancel(true);
+        }
+        CompletableFuture<ReplyPage> future = fetcher.apply(page);
+        if (future != null) {
+            pages.put(page, future);
+        }
+    }
+
+    /**
+     * 取消所有预取
+     */
+    synchronized void cancel() {
+        Iterator<CompletableFuture<ReplyPage>> iterator = pages.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().cancel(true);
+            iterator.remove();
+        }
+        topicId = 0;
+    }
+}
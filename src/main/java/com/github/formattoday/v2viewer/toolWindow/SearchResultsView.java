@@ -0,0 +1,128 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.search.SearchIndex;
+import com.intellij.ui.CollectionListModel;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.ScrollingUtil;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * 本地搜索结果视图
+ * 每行显示主题标题、楼层和内容摘要，回车或单击打开对应主题的所在页
+ */
+final class SearchResultsView {
+    private static final String OPEN_ACTION = "v2ex.openSearchHit";
+
+    private final CollectionListModel<SearchIndex.Hit> model = new CollectionListModel<>();
+    private final JBList<SearchIndex.Hit> list = new JBList<>(model);
+    private final JBLabel statusLabel = new JBLabel();  // 结果数和耗时
+    private final JPanel panel = new JPanel(new BorderLayout());
+    private Color textColor;            // 标题颜色
+
+    /**
+     * 结果行事件
+     */
+    interface Listener {
+        /** 打开结果 */
+        void hitOpened(SearchIndex.Hit hit);
+    }
+
+    SearchResultsView(Listener listener) {
+        list.setCellRenderer(new HitCellRenderer());
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JBScrollPane scrollPane = new JBScrollPane(list);
+        scrollPane.setBorder(JBUI.Borders.empty(5));
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        statusLabel.setBorder(JBUI.Borders.empty(2, 8));
+        panel.add(statusLabel, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        // 键盘导航，回车打开
+        ScrollingUtil.installActions(list);
+        list.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), OPEN_ACTION);
+        list.getActionMap().put(OPEN_ACTION, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                SearchIndex.Hit hit = list.getSelectedValue();
+                if (hit != null) {
+                    listener.hitOpened(hit);
+                }
+            }
+        });
+
+        // 单击打开
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0 && SwingUtilities.isLeftMouseButton(e)
+                        && list.getCellBounds(index, index).contains(e.getPoint())) {
+                    listener.hitOpened(model.getElementAt(index));
+                }
+            }
+        });
+    }
+
+    /**
+     * 结果组件
+     */
+    JComponent getComponent() {
+        return panel;
+    }
+
+    /**
+     * 显示结果，没有结果时显示 emptyText
+     */
+    void setHits(List<SearchIndex.Hit> hits, String status, String emptyText) {
+        list.getEmptyText().setText(emptyText);
+        statusLabel.setText(status);
+        model.replaceAll(hits);
+        list.clearSelection();
+        if (!hits.isEmpty()) {
+            list.ensureIndexIsVisible(0);
+        }
+    }
+
+    /**
+     * 应用字体和颜色
+     */
+    void applyFont(Font font, Color color) {
+        textColor = color;
+        list.setFont(font);
+        list.repaint();
+    }
+
+    /**
+     * 结果行渲染器
+     */
+    private class HitCellRenderer extends ColoredListCellRenderer<SearchIndex.Hit> {
+        @Override
+        protected void customizeCellRenderer(@NotNull JList<? extends SearchIndex.Hit> list, SearchIndex.Hit hit,
+                                             int index, boolean selected, boolean hasFocus) {
+            setFont(list.getFont());
+            setIpad(JBUI.insets(2, 0));
+            SimpleTextAttributes titleAttributes = selected || textColor == null
+                    ? SimpleTextAttributes.REGULAR_ATTRIBUTES
+                    : new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, textColor);
+            append(hit.title() != null ? hit.title() : "主题 #" + hit.topicId(), titleAttributes);
+            if (hit.floor() > 0) {
+                append(" #" + hit.floor() + "楼", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+            append("  " + hit.snippet(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+        }
+    }
+}
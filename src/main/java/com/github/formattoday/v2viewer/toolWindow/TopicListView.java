@@ -0,0 +1,217 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.intellij.ui.CollectionListModel;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.ScrollingUtil;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * 主题列表视图
+ * 基于 JBList 的虚拟化列表，只绘制可见行；字体和颜色变化只需重绘，不重建组件。
+ * 列表上方的状态栏显示快照的新旧程度和刷新状态
+ */
+final class TopicListView {
+    private static final String OPEN_ACTION = "v2ex.openTopic";
+    // 用于计算固定行高的原型行
+    private static final TopicSummary PROTOTYPE = new TopicSummary(0, "原型 Prototype", 999, 0, (id, replies) -> null);
+
+    private final CollectionListModel<TopicSummary> model = new CollectionListModel<>();
+    private final JBList<TopicSummary> list = new JBList<>(model);
+    private final JBScrollPane scrollPane = new JBScrollPane(list);
+    private final JBLabel statusLabel = new JBLabel();  // 快照/刷新状态
+    private final JPanel panel = new JPanel(new BorderLayout());
+    private final Timer viewportTimer;  // 滚动停止后通知可见行
+    private Color textColor;            // 标题颜色
+    private int hoveredIndex = -1;      // 鼠标所在行
+
+    /**
+     * 列表行事件
+     */
+    interface Listener {
+        /** 打开主题 */
+        void topicOpened(int topicId);
+
+        /** 主题进入视口或被悬停，urgent 表示悬停 */
+        void topicVisible(int topicId, boolean urgent);
+    }
+
+    TopicListView(Listener listener) {
+        list.setCellRenderer(new TopicCellRenderer());
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setPrototypeCellValue(PROTOTYPE);
+        scrollPane.setBorder(JBUI.Borders.empty(5));
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        statusLabel.setBorder(JBUI.Borders.empty(2, 8));
+        statusLabel.setVisible(false);
+        panel.add(statusLabel, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+
+        // 键盘导航：方向键/Home/End/翻页，回车打开
+        ScrollingUtil.installActions(list);
+        list.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), OPEN_ACTION);
+        list.getActionMap().put(OPEN_ACTION, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                TopicSummary topic = list.getSelectedValue();
+                if (topic != null) {
+                    listener.topicOpened(topic.id);
+                }
+            }
+        });
+
+        // 鼠标：单击打开，悬停预取
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = rowAt(e.getPoint());
+                if (index >= 0 && SwingUtilities.isLeftMouseButton(e)) {
+                    listener.topicOpened(model.getElementAt(index).id);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int index = rowAt(e.getPoint());
+                if (index != hoveredIndex) {
+                    hoveredIndex = index;
+                    list.setCursor(index >= 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+                    if (index >= 0) {
+                        listener.topicVisible(model.getElementAt(index).id, true);
+                    }
+                }
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hoveredIndex = -1;
+            }
+        };
+        list.addMouseListener(mouseAdapter);
+        list.addMouseMotionListener(mouseAdapter);
+
+        // 视口：滚动停止后通知可见行
+        viewportTimer = new Timer(300, e -> {
+            int first = list.getFirstVisibleIndex();
+            int last = list.getLastVisibleIndex();
+            if (first < 0) {
+                return;
+            }
+            for (int i = first; i <= last && i < model.getSize(); i++) {
+                listener.topicVisible(model.getElementAt(i).id, false);
+            }
+        });
+        viewportTimer.setRepeats(false);
+        scrollPane.getViewport().addChangeListener(e -> viewportTimer.restart());
+    }
+
+    /**
+     * 列表组件
+     */
+    JComponent getComponent() {
+        return panel;
+    }
+
+    /**
+     * 更新列表内容，列表为空时显示 emptyText
+     * 行的顺序不变时只替换内容有变化的行，保留选中和滚动位置；否则整体替换并按ID恢复选中
+     */
+    void setTopics(List<TopicSummary> topics, String emptyText) {
+        list.getEmptyText().setText(emptyText);
+        List<TopicSummary> current = model.getItems();
+        if (sameRows(current, topics)) {
+            for (int i = 0; i < topics.size(); i++) {
+                if (!current.get(i).sameContent(topics.get(i))) {
+                    model.setElementAt(topics.get(i), i);
+                }
+            }
+        } else {
+            TopicSummary selected = list.getSelectedValue();
+            model.replaceAll(topics);
+            list.clearSelection();
+            hoveredIndex = -1;
+            if (selected != null) {
+                for (int i = 0; i < topics.size(); i++) {
+                    if (topics.get(i).id == selected.id) {
+                        list.setSelectedIndex(i);
+                        break;
+                    }
+                }
+            }
+        }
+        viewportTimer.restart();
+    }
+
+    /**
+     * 显示状态信息，text 为 null 时隐藏状态栏
+     *
+     * @param warning 是否以警告色显示（刷新失败）
+     */
+    void setStatus(@Nullable String text, boolean warning) {
+        statusLabel.setVisible(text != null);
+        statusLabel.setText(text == null ? "" : text);
+        statusLabel.setForeground(warning ? JBColor.ORANGE : JBColor.GRAY);
+    }
+
+    private static boolean sameRows(List<TopicSummary> current, List<TopicSummary> topics) {
+        if (current.size() != topics.size()) {
+            return false;
+        }
+        for (int i = 0; i < topics.size(); i++) {
+            if (current.get(i).id != topics.get(i).id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 应用字体和颜色，按新字体重新计算固定行高后重新布局与重绘
+     */
+    void applyFont(Font font, Color color) {
+        textColor = color;
+        list.setFont(font);
+        // 固定行高只在设置原型行时计算，setFont 不会更新，需按新字体重新设置
+        list.setPrototypeCellValue(PROTOTYPE);
+        list.repaint();
+    }
+
+    private int rowAt(Point point) {
+        int index = list.locationToIndex(point);
+        return index >= 0 && list.getCellBounds(index, index).contains(point) ? index : -1;
+    }
+
+    /**
+     * 主题行渲染器
+     */
+    private class TopicCellRenderer extends ColoredListCellRenderer<TopicSummary> {
+        @Override
+        protected void customizeCellRenderer(@NotNull JList<? extends TopicSummary> list, TopicSummary topic,
+                                             int index, boolean selected, boolean hasFocus) {
+            setFont(list.getFont());
+            setIpad(JBUI.insets(2, 0));
+            SimpleTextAttributes titleAttributes = selected || textColor == null
+                    ? SimpleTextAttributes.REGULAR_ATTRIBUTES
+                    : new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, textColor);
+            append((index + 1) + ". ", titleAttributes);
+            append(topic.title, titleAttributes);
+            append(" [" + topic.replies + "回复]", SimpleTextAttributes.GRAYED_ATTRIBUTES);
+        }
+    }
+}
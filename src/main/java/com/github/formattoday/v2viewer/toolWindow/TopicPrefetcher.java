@@ -0,0 +1,148 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * 主题预取器
+ * 为列表中可见或鼠标悬停的主题预取详情和第一页回复。
+ * 预取并发数有上限，且有用户发起的加载时暂停派发，避免抢占带宽和触发限流
+ */
+final class TopicPrefetcher {
+    private static final int MAX_CONCURRENT = 2;        // 并发预取上限
+    private static final int MAX_QUEUED = 20;           // 等待队列上限
+    private static final int MAX_RETAINED = 16;         // 保留的预取结果数
+    private static final long RETAIN_MILLIS = 60_000;   // 预取结果有效期
+
+    private final IntFunction<CompletableFuture<Topic>> topicFetcher;        // 主题详情请求
+    private final IntFunction<CompletableFuture<ReplyPage>> repliesFetcher;  // 第一页回复请求
+
+    private final Deque<Integer> queue = new ArrayDeque<>();
+    private final Map<Integer, Prefetched> prefetched = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Prefetched> eldest) {
+            if (size() > MAX_RETAINED) {
+                eldest.getValue().cancel();
+                return true;
+            }
+            return false;
+        }
+    };
+    private int running;    // 进行中的预取数
+    private int userLoads;  // 进行中的用户加载数
+
+    /**
+     * 预取结果
+     */
+    static final class Prefetched {
+        final CompletableFuture<Topic> topic;        // 主题详情
+        final CompletableFuture<ReplyPage> replies;  // 第一页回复
+        final long createdAt;                      // 发起时间
+
+        Prefetched(CompletableFuture<Topic> topic, CompletableFuture<ReplyPage> replies) {
+            this.topic = topic;
+            this.replies = replies;
+            this.createdAt = System.currentTimeMillis();
+        }
+
+        boolean isUsable() {
+            return System.currentTimeMillis() - createdAt < RETAIN_MILLIS
+                    && !topic.isCompletedExceptionally()
+                    && !replies.isCompletedExceptionally();
+        }
+
+        void cancel() {
+            topic.cancel(true);
+            replies.cancel(true);
+        }
+    }
+
+    TopicPrefetcher(IntFunction<CompletableFuture<Topic>> topicFetcher,
+                    IntFunction<CompletableFuture<ReplyPage>> repliesFetcher) {
+        this.topicFetcher = topicFetcher;
+        this.repliesFetcher = repliesFetcher;
+    }
+
+    /**
+     * 加入预取队列，urgent 为 true 时（鼠标悬停）插到队首
+     */
+    synchronized void enqueue(int topicId, boolean urgent) {
+        Prefetched existing = prefetched.get(topicId);
+        if (existing != null && existing.isUsable()) {
+            return;
+        }
+        queue.remove(topicId);
+        if (urgent) {
+            queue.addFirst(topicId);
+        } else {
+            queue.addLast(topicId);
+        }
+        while (queue.size() > MAX_QUEUED) {
+            queue.removeLast();
+        }
+        pump();
+    }
+
+    /**
+     * 取出预取结果，没有或已失效时返回 null
+     */
+    synchronized Prefetched take(int topicId) {
+        queue.remove(topicId);
+        Prefetched result = prefetched.remove(topicId);
+        if (result == null || !result.isUsable()) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * 用户加载开始，暂停派发新的预取
+     */
+    synchronized void beginUserLoad() {
+        userLoads++;
+    }
+
+    /**
+     * 用户加载结束，恢复预取
+     */
+    synchronized void endUserLoad() {
+        userLoads = Math.max(0, userLoads - 1);
+        pump();
+    }
+
+    /**
+     * 清空队列并取消所有预取
+     */
+    synchronized void clear() {
+        queue.clear();
+        prefetched.values().forEach(Prefetched::cancel);
+        prefetched.clear();
+    }
+
+    private void pump() {
+        while (userLoads == 0 && running < MAX_CONCURRENT && !queue.isEmpty()) {
+            int topicId = queue.pollFirst();
+            Prefetched existing = prefetched.get(topicId);
+            if (existing != null && existing.isUsable()) {
+                continue;
+            }
+            running++;
+            Prefetched started = new Prefetched(topicFetcher.apply(topicId), repliesFetcher.apply(topicId));
+            prefetched.put(topicId, started);
+            CompletableFuture.allOf(started.topic, started.replies)
+                    .whenComplete((ignored, error) -> onPrefetchDone());
+        }
+    }
+
+    private synchronized void onPrefetchDone() {
+        running--;
+        pump();
+    }
+}
@@ -1,56 +1,91 @@
 package com.github.formattoday.v2viewer.toolWindow;
 
 import com.github.formattoday.v2viewer.V2ViewerBundle;
+import com.github.formattoday.v2viewer.cache.ParsedDataCache;
+import com.github.formattoday.v2viewer.data.V2EXDataService;
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.github.formattoday.v2viewer.network.HttpStatusException;
+import com.github.formattoday.v2viewer.network.RequestScheduler;
+import com.github.formattoday.v2viewer.network.V2EXHttpClientService;
+import com.github.formattoday.v2viewer.render.TopicHtmlRenderer;
+import com.github.formattoday.v2viewer.render.V2EXHtmlEditorKit;
+import com.github.formattoday.v2viewer.search.SearchIndex;
 import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import com.intellij.ide.BrowserUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.options.ShowSettingsUtil;
 import com.intellij.openapi.project.Project;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.SearchTextField;
 import com.intellij.ui.components.ActionLink;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.util.ui.JBUI;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import org.json.JSONArray;
-import org.json.JSONObject;
 
 import javax.swing.*;
+import javax.swing.event.HyperlinkEvent;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.html.HTML;
+import javax.swing.text.html.HTMLDocument;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Proxy;
-import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * V2EX 新闻面板
  * 负责显示主题列表和内容
  */
-public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
+public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener, Disposable {
+    private static final Logger LOG = Logger.getInstance(V2EXNewsPanel.class);
+
     // UI 组件
     private final JPanel mainPanel;           // 主面板
     private final JPanel contentPanel;        // 内容面板
     private final JTextPane contentArea;      // 内容区域
+    private final JBScrollPane contentScrollPane;  // 内容区域的滚动面板，切换主题时复用
     private final Project project;            // 项目实例
 
-    // HTTP 客户端
-    private final OkHttpClient.Builder clientBuilder;
-
-    // 数据状态
-    private final List<TopicInfo> currentTopics = new ArrayList<>();  // 当前主题列表
-    private boolean isShowingList = true;     // 是否显示列表视图
-    private static final int REPLIES_PER_PAGE = 20;  // 每页回复数
-    private int currentPage = 1;              // 当前页码
-    private int totalReplies = 0;             // 总回复数
-    private int currentTopicId = 0;           // 当前主题ID
-    private String currentNode = "hot";       // 当前节点，默认为热门
+    // 数据状态：节点、列表和阅读位置保存在不可变快照中，只在 EDT 上替换，后台加载只读取快照
+    private final AtomicReference<ViewState> state = new AtomicReference<>(ViewState.INITIAL);
+    private boolean shown;                    // 工具窗口是否可见
+    private boolean loaded;                   // 是否已发起过首次加载
+    private long firstShownAt;                // 首次显示的时间（纳秒），首个最新列表就绪后清零
+    private static final int REPLIES_PER_PAGE = ReplyPage.PAGE_SIZE;  // 每页回复数
+    private CompletableFuture<ReplyPage> pendingAppend;  // 正在加载的追加页
+    private CompletableFuture<List<TopicSummary>> listLoad;  // 正在加载的主题列表
+    private SwingWorker<TopicView, String> topicLoad;        // 正在加载的主题内容
+    private final ReplyPagePrefetcher replyPrefetcher = new ReplyPagePrefetcher();  // 相邻回复页预取
+    private final TopicPrefetcher topicPrefetcher;  // 列表可见/悬停主题预取
+    private final V2EXDataService data = V2EXDataService.getInstance();  // 应用级共享数据
+    private final V2EXDataService.ListListener listListener = this::onListUpdated;
+    private final TopicListView topicListView;      // 主题列表视图
+    private final SearchResultsView searchResultsView;  // 本地搜索结果视图
+    private int searchSeq;                          // 最近一次搜索的序号，丢弃过期的结果
+
+    // 搜索框
+    private SearchTextField searchField;
 
     // 分页按钮
     private JButton prevButton;
     private JButton nextButton;
 
+    // API 配额显示
+    private JBLabel budgetLabel;
+    private final RequestScheduler.BudgetListener budgetListener =
+            () -> SwingUtilities.invokeLater(this::updateBudgetLabel);
+
     // 节点按钮
     private JButton hotButton;      // 热门按钮
     private JButton techButton;     // 技术按钮
@@ -59,32 +94,37 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
     private JButton hotTopicsButton;// 最热按钮
     private JButton allButton;      // 全部按钮
 
-    /**
-     * 主题信息类
-     */
-    private static class TopicInfo {
-        final int id;           // 主题ID
-        final String title;     // 主题标题
-        final int replies;      // 回复数
-
-        TopicInfo(int id, String title, int replies) {
-            this.id = id;
-            this.title = title;
-            this.replies = replies;
-        }
-    }
-
     /**
      * 构造函数
      */
     public V2EXNewsPanel(Project project) {
         this.project = project;
 
-        // 初始化 HTTP 客户端
-        this.clientBuilder = new OkHttpClient.Builder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .readTimeout(Duration.ofSeconds(30))
-                .writeTimeout(Duration.ofSeconds(30));
+        // 初始化主题预取
+        topicPrefetcher = new TopicPrefetcher(
+                id -> data.fetchTopic(id, RequestScheduler.Priority.PREFETCH),
+                id -> data.fetchReplies(id, 1, RequestScheduler.Priority.PREFETCH)
+        );
+
+        // 初始化主题列表视图
+        topicListView = new TopicListView(new TopicListView.Listener() {
+            @Override
+            public void topicOpened(int topicId) {
+                showTopicContent(topicId);
+            }
+
+            @Override
+            public void topicVisible(int topicId, boolean urgent) {
+                V2EXSettings settings = V2EXSettings.getInstance();
+                if (shown && state.get().showingList() && settings.prefetchVisibleTopics && !settings.apiToken.isEmpty()) {
+                    prefetchTopic(topicId, urgent);
+                }
+            }
+        });
+
+        // 初始化搜索结果视图，按楼层打开所在页
+        searchResultsView = new SearchResultsView(hit -> showTopicContent(hit.topicId(),
+                hit.floor() == 0 ? 1 : (hit.floor() - 1) / REPLIES_PER_PAGE + 1));
 
         // 初始化主面板
         mainPanel = new JPanel(new BorderLayout());
@@ -96,44 +136,83 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
         // 创建内容面板
         contentPanel = new JPanel(new BorderLayout());
         contentArea = new JTextPane();
+        contentArea.setEditorKit(new V2EXHtmlEditorKit());
         contentArea.setEditable(false);
+        contentArea.addHyperlinkListener(e -> {
+            if (e.getEventType() == HyperlinkEvent.EventType.ACTIVATED && e.getURL() != null) {
+                BrowserUtil.browse(e.getURL().toString());
+            }
+        });
         contentArea.setMargin(JBUI.insets(5));
         contentArea.putClientProperty(JEditorPane.HONOR_DISPLAY_PROPERTIES, Boolean.TRUE);
 
         // 应用字体设置
         applyFontSettings();
 
-        // 创建滚动面板
-        JBScrollPane scrollPane = new JBScrollPane(contentArea);
-        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
-        scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        // 创建滚动面板，滚动接近底部时追加下一页回复
+        contentScrollPane = new JBScrollPane(contentArea);
+        contentScrollPane.setBorder(JBUI.Borders.empty(5));
+        contentScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        contentScrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        contentScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                maybeAppendNextPage();
+            }
+        });
 
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        contentPanel.add(contentScrollPane, BorderLayout.CENTER);
         mainPanel.add(contentPanel, BorderLayout.CENTER);
 
-        // 注册设置变更监听
+        // 注册设置变更、配额变化和共享列表更新监听
         V2EXSettings.getInstance().addChangeListener(this);
+        V2EXHttpClientService.getInstance().getScheduler().addBudgetListener(budgetListener);
+        data.addListListener(listListener);
 
-        // 初始加载内容
-        refreshContent(null);
+        // 网络请求推迟到工具窗口首次显示，见 setShown
     }
 
     /**
-     * 获取代理设置
+     * 工具窗口显示状态变化
+     * 首次显示时才加载列表；隐藏时取消预取和节点预热，再次显示时列表已过新鲜期则刷新
      */
-    public static Proxy getProxy(V2EXSettings settings) {
-        if (!settings.useProxy || settings.proxyHost.isEmpty()) {
-            return Proxy.NO_PROXY;
+    public void setShown(boolean visible) {
+        if (visible == shown) {
+            return;
+        }
+        shown = visible;
+        if (!visible) {
+            topicPrefetcher.clear();
+            replyPrefetcher.cancel();
+            data.setViewerActive(this, false);
+            return;
         }
 
-        Proxy.Type proxyType = "SOCKS".equals(settings.proxyType)
-                ? Proxy.Type.SOCKS
-                : Proxy.Type.HTTP;
+        if (!loaded) {
+            loaded = true;
+            firstShownAt = System.nanoTime();
+            refreshContent(null);
+        } else {
+            ViewState current = state.get();
+            if (current.showingList() && System.currentTimeMillis() - current.list().loadedAt()
+                    > V2EXDataService.listMaxAgeSeconds(current.node()) * 1000L) {
+                refreshContent(null);
+            }
+        }
+        // 当前节点的请求已发出，预热时与之合并
+        data.setViewerActive(this, true);
+    }
 
-        return new Proxy(
-                proxyType,
-                new InetSocketAddress(settings.proxyHost, settings.proxyPort)
-        );
+    @Override
+    public void dispose() {
+        V2EXSettings.getInstance().removeChangeListener(this);
+        V2EXHttpClientService.getInstance().getScheduler().removeBudgetListener(budgetListener);
+        topicPrefetcher.clear();
+        replyPrefetcher.cancel();
+        data.setViewerActive(this, false);
+        data.removeListListener(listListener);
+        cancelPendingAppend();
+        cancelListLoad();
+        cancelTopicLoad();
     }
 
     /**
@@ -161,16 +240,21 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
         mainPanel.revalidate();
         mainPanel.repaint();
 
-        // 更新链接面板的字体（如果在显示列表）
-        if (isShowingList) {
-            setupTopicLinks();
+        // 更新主题列表的字体和颜色，不重建组件
+        Color textColor = settings.fontColor;
+        // 如果颜色是黑色，则使用深灰色
+        if (textColor.equals(Color.BLACK)) {
+            textColor = new Color(0x66, 0x66, 0x66);
         }
+        topicListView.applyFont(font, textColor);
+        searchResultsView.applyFont(font, textColor);
     }
 
     /**
      * 更新节点按钮状态
      */
     private void updateNodeButtons() {
+        String currentNode = state.get().node();
         hotButton.setEnabled(!currentNode.equals("hot"));
         techButton.setEnabled(!currentNode.equals("tech"));
         creativeButton.setEnabled(!currentNode.equals("creative"));
@@ -197,41 +281,12 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
         hotTopicsButton = new JButton(V2ViewerBundle.message("node.hot_topics"));
         allButton = new JButton(V2ViewerBundle.message("node.all"));
 
-        hotButton.addActionListener(e -> {
-            currentNode = "hot";
-            refreshContent(null);
-            updateNodeButtons();
-        });
-
-        techButton.addActionListener(e -> {
-            currentNode = "tech";
-            refreshContent(null);
-            updateNodeButtons();
-        });
-
-        creativeButton.addActionListener(e -> {
-            currentNode = "creative";
-            refreshContent(null);
-            updateNodeButtons();
-        });
-
-        playButton.addActionListener(e -> {
-            currentNode = "play";
-            refreshContent(null);
-            updateNodeButtons();
-        });
-
-        hotTopicsButton.addActionListener(e -> {
-            currentNode = "hot_topics";
-            refreshContent(null);
-            updateNodeButtons();
-        });
-
-        allButton.addActionListener(e -> {
-            currentNode = "all";
-            refreshContent(null);
-            updateNodeButtons();
-        });
+        hotButton.addActionListener(e -> switchNode("hot"));
+        techButton.addActionListener(e -> switchNode("tech"));
+        creativeButton.addActionListener(e -> switchNode("creative"));
+        playButton.addActionListener(e -> switchNode("play"));
+        hotTopicsButton.addActionListener(e -> switchNode("hot_topics"));
+        allButton.addActionListener(e -> switchNode("all"));
 
         // 添加节点按钮到节点面板
         nodeButtonsPanel.add(hotButton);
@@ -275,10 +330,40 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
         // 添加操作按钮组到工具栏
         toolbar.add(actionButtonsPanel);
 
+        // 本地搜索
+        searchField = new SearchTextField(false);
+        searchField.setToolTipText(V2ViewerBundle.message("search.tooltip"));
+        searchField.getTextEditor().setColumns(16);
+        searchField.getTextEditor().addActionListener(e -> search(searchField.getText()));
+        toolbar.add(searchField);
+
+        // API 配额
+        budgetLabel = new JBLabel();
+        toolbar.add(budgetLabel);
+        updateBudgetLabel();
+
         updateNodeButtons();
         return toolbar;
     }
 
+    /**
+     * 切换节点
+     */
+    private void switchNode(String node) {
+        state.updateAndGet(s -> s.withNode(node));
+        refreshContent(null);
+        updateNodeButtons();
+    }
+
+    /**
+     * 更新 API 配额显示，配额偏低时以警告色显示
+     */
+    private void updateBudgetLabel() {
+        RequestScheduler scheduler = V2EXHttpClientService.getInstance().getScheduler();
+        budgetLabel.setText(scheduler.getBudgetText());
+        budgetLabel.setForeground(scheduler.isBudgetLow() ? JBColor.ORANGE : JBColor.GRAY);
+    }
+
     /**
      * 获取面板内容
      */
@@ -288,66 +373,70 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
 
     /**
      * 刷新内容
+     * 先显示该节点已有的列表或上次保存的快照，再在后台刷新，刷新结果按行更新
      */
     private void refreshContent(ActionEvent e) {
-        currentTopics.clear();
-        isShowingList = true;
+        // 点击刷新按钮时强制重新验证缓存，切换节点时允许使用新鲜期内的缓存
+        boolean forceRevalidate = e != null;
+        replyPrefetcher.cancel();
+        topicPrefetcher.clear();
+        cancelListLoad();
+        cancelTopicLoad();
+        ViewState current = state.updateAndGet(s -> s.withShowingList(true));
 
         V2EXSettings settings = V2EXSettings.getInstance();
         String token = settings.apiToken;
         if (token.isEmpty()) {
+            state.updateAndGet(s -> s.withList(ViewState.TopicList.EMPTY));
             showNoTokenWarning();
             return;
         }
 
-        // 显示加载状态
-        showLoadingState();
-
-        // 异步加载主题列表
-        SwingWorker<String, Void> worker = new SwingWorker<>() {
-            @Override
-            protected String doInBackground() throws Exception {
-                String apiUrl = getNodeApiUrl();
-                System.out.println("正在请求API: " + apiUrl);  // 添加调试信息
-
-                OkHttpClient client = clientBuilder.proxy(getProxy(settings)).build();
-                Request request = new Request.Builder()
-                        .url(apiUrl)
-                        .header("Authorization", "Bearer " + token)
-                        .build();
-
-                try (Response response = client.newCall(request).execute()) {
-                    if (!response.isSuccessful()) {
-                        String error = String.format("请求失败: HTTP %d %s", response.code(), response.message());
-                        System.out.println(error);  // 添加调试信息
-                        return V2ViewerBundle.message("error.request", error);
-                    }
-
-                    String responseBody = response.body().string();
-                    System.out.println("API响应: " + responseBody);  // 添加调试信息
+        // 共享的列表仍在新鲜期内时直接显示，不发请求
+        String node = current.node();
+        V2EXDataService.NodeList fresh = forceRevalidate ? null : data.getFreshList(node);
+        if (fresh != null) {
+            showSharedList(fresh);
+            return;
+        }
 
-                    JSONArray topics = new JSONArray(responseBody);
-                    return formatTopicList(topics);
-                } catch (IOException ex) {
-                    System.out.println("发生异常: " + ex.getMessage());  // 添加调试信息
-                    return V2ViewerBundle.message("error.loading", ex.getMessage());
-                }
+        // 显示已有列表；没有时先显示加载状态，同时在后台读取快照
+        ViewState.TopicList list = current.list();
+        if (!node.equals(list.node()) || list.isEmpty()) {
+            ViewState.TopicList empty = new ViewState.TopicList(node, List.of(), 0, 0);
+            state.updateAndGet(s -> s.withList(empty));
+            showLoadingState();
+            showStoredList(node);
+        } else {
+            showRefreshingList(list);
+        }
+        updatePaginationButtons();
+
+        // 经共享数据服务加载，成功的结果通过 onListUpdated 到达所有面板
+        topicPrefetcher.beginUserLoad();
+        CompletableFuture<List<TopicSummary>> load =
+                data.refreshList(node, RequestScheduler.Priority.USER, forceRevalidate);
+        listLoad = load;
+        load.whenComplete((topics, error) -> SwingUtilities.invokeLater(() -> {
+            topicPrefetcher.endUserLoad();
+            // 已被新的加载取代（切换节点或再次刷新）时丢弃结果，由新的请求负责显示
+            if (load != listLoad) {
+                return;
             }
-
-            @Override
-            protected void done() {
-                try {
-                    String result = get();
-                    System.out.println("处理结果: " + result);  // 添加调试信息
-                    updateContent(result);
-                } catch (Exception ex) {
-                    System.out.println("更新内容时发生异常: " + ex.getMessage());  // 添加调试信息
-                    updateContent(V2ViewerBundle.message("error.loading", ex.getMessage()));
+            listLoad = null;
+            if (error == null) {
+                if (topics.isEmpty()) {
+                    showListError(V2ViewerBundle.message("error.loading", "没有获取到主题列表"));
                 }
+                return;
             }
-        };
-
-        worker.execute();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            showListError(cause instanceof HttpStatusException status
+                    ? V2ViewerBundle.message("error.request", "HTTP " + status.getMessage())
+                    : V2ViewerBundle.message("error.loading", cause.getMessage()));
+        }));
     }
 
     /**
@@ -364,46 +453,139 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
     }
 
     /**
-     * 格式化主题列表
+     * 在后台读取节点上次保存的列表快照，读完时仍停留在该节点的列表、刷新仍在进行且还没有列表才显示
+     */
+    private void showStoredList(String node) {
+        data.loadSnapshot(node).thenAccept(snapshot -> SwingUtilities.invokeLater(() -> {
+            if (snapshot == null || snapshot.topics().isEmpty() || listLoad == null) {
+                return;
+            }
+            ViewState.TopicList stored = new ViewState.TopicList(node, snapshot.topics(), snapshot.savedAt(), 0);
+            ViewState updated = state.updateAndGet(s -> s.showingList() && node.equals(s.node())
+                    && node.equals(s.list().node()) && s.list().isEmpty() ? s.withList(stored) : s);
+            if (updated.list() == stored) {
+                showRefreshingList(stored);
+                updatePaginationButtons();
+            }
+        }));
+    }
+
+    /**
+     * 显示已有列表或快照，并提示正在刷新
+     */
+    private void showRefreshingList(ViewState.TopicList list) {
+        if (firstShownAt != 0 && list.savedAt() > 0) {
+            LOG.info(String.format("首次显示到快照列表就绪 %d ms", elapsedMs(firstShownAt)));
+        }
+        showTopicListView("");
+        topicListView.setStatus(list.savedAt() > 0
+                ? V2ViewerBundle.message("list.stale.refreshing", formatAge(list.savedAt()))
+                : V2ViewerBundle.message("list.refreshing"), false);
+    }
+
+    /**
+     * 从内存显示共享的列表
+     */
+    private void showSharedList(V2EXDataService.NodeList shared) {
+        state.updateAndGet(s -> s.withList(
+                new ViewState.TopicList(shared.node(), shared.topics(), 0, shared.loadedAt())));
+        DebugTrace.getInstance().record("list", () -> shared.node() + " 使用共享列表（" + shared.topics().size() + " 条）");
+        topicListView.setStatus(null, false);
+        showTopicListView("");
+        updatePaginationButtons();
+    }
+
+    /**
+     * 共享列表更新（本面板、其他项目的面板或预热加载的结果）：更新节点耗时提示，当前节点的列表按行更新
      */
-    private String formatTopicList(JSONArray topics) {
-        if (topics == null || topics.length() == 0) {
-            return V2ViewerBundle.message("error.loading", "没有获取到主题列表");
+    private void onListUpdated(V2EXDataService.NodeList list) {
+        JButton button = getNodeButton(list.node());
+        if (button != null) {
+            button.setToolTipText(V2ViewerBundle.message("node.latency", String.valueOf(list.latencyMs())));
         }
+        applyTopicList(list);
+    }
 
-        StringBuilder content = new StringBuilder();
-        currentTopics.clear();
+    /**
+     * 节点对应的按钮
+     */
+    private JButton getNodeButton(String node) {
+        return switch (node) {
+            case "hot" -> hotButton;
+            case "tech" -> techButton;
+            case "creative" -> creativeButton;
+            case "play" -> playButton;
+            case "hot_topics" -> hotTopicsButton;
+            case "all" -> allButton;
+            default -> null;
+        };
+    }
 
-        for (int i = 0; i < topics.length(); i++) {
-            JSONObject topic = topics.getJSONObject(i);
-            int id = topic.getInt("id");
-            String title = topic.getString("title");
-            int replies = topic.getInt("replies");
+    /**
+     * 应用最新的主题列表，不属于当前节点时忽略，列表视图按行更新；缓存失效和快照保存由 V2EXDataService 完成
+     */
+    private void applyTopicList(V2EXDataService.NodeList shared) {
+        ViewState.TopicList list = new ViewState.TopicList(shared.node(), shared.topics(), 0, shared.loadedAt());
+        ViewState current = state.updateAndGet(s -> s.withLoadedList(list));
+        if (current.list() != list) {
+            return;
+        }
+        if (firstShownAt != 0) {
+            long startupMs = elapsedMs(firstShownAt);
+            firstShownAt = 0;
+            LOG.info(String.format("首次显示到最新列表就绪 %d ms", startupMs));
+            DebugTrace.getInstance().record("startup", () -> "首次显示到最新列表就绪 " + startupMs + " ms");
+        }
 
-            currentTopics.add(new TopicInfo(id, title, replies));
-            content.append(String.format("%d. %s [%d回复]\n", i + 1, title, replies));
+        topicListView.setStatus(null, false);
+        if (current.showingList()) {
+            showTopicListView("");
         }
+    }
 
-        return content.toString();
+    /**
+     * 刷新失败：有快照时保留快照并提示，否则显示错误
+     */
+    private void showListError(String message) {
+        ViewState current = state.get();
+        ViewState.TopicList list = current.list();
+        if (!list.isEmpty()) {
+            topicListView.setStatus(list.savedAt() > 0
+                    ? V2ViewerBundle.message("list.stale.failed", message, formatAge(list.savedAt()))
+                    : message, true);
+        } else if (current.showingList()) {
+            topicListView.setStatus(null, false);
+            showTopicListView(message);
+        }
+    }
+
+    /**
+     * 格式化快照距今的时间
+     */
+    private static String formatAge(long savedAt) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(Math.max(0, System.currentTimeMillis() - savedAt));
+        if (minutes < 1) {
+            return "不到 1 分钟";
+        }
+        if (minutes < 60) {
+            return minutes + " 分钟";
+        }
+        if (minutes < 24 * 60) {
+            return minutes / 60 + " 小时";
+        }
+        return minutes / (24 * 60) + " 天";
     }
 
     /**
      * 显示主题列表
      */
     private void showTopicList() {
-        if (!isShowingList) {
-            isShowingList = true;
-            if (currentTopics.isEmpty()) {
-                updateContent(V2ViewerBundle.message("error.loading", "主题列表为空"));
-                return;
-            }
-            StringBuilder content = new StringBuilder();
-            for (int i = 0; i < currentTopics.size(); i++) {
-                TopicInfo topic = currentTopics.get(i);
-                content.append(String.format("%d. %s [%d回复]\n",
-                        i + 1, topic.title, topic.replies));
-            }
-            updateContent(content.toString());
+        replyPrefetcher.cancel();
+        cancelPendingAppend();
+        cancelTopicLoad();
+        if (!state.get().showingList()) {
+            state.updateAndGet(s -> s.withShowingList(true));
+            showTopicListView(V2ViewerBundle.message("error.loading", "主题列表为空"));
             updatePaginationButtons();
         }
     }
@@ -412,75 +594,216 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
      * 更新内容显示
      */
     private void updateContent(String text) {
-        if (isShowingList) {
-            setupTopicLinks();
+        if (state.get().showingList()) {
+            showTopicListView(text);
         } else {
-            contentPanel.removeAll();
-            contentArea.setText(text);
+            updateHtmlContent(TopicHtmlRenderer.getInstance().renderMessage(text));
+        }
+    }
+
+    /**
+     * 显示渲染好的主题 HTML
+     */
+    private void updateHtmlContent(String html) {
+        if (!state.get().showingList()) {
+            if (contentScrollPane.getParent() != contentPanel) {
+                contentPanel.removeAll();
+                contentPanel.add(contentScrollPane, BorderLayout.CENTER);
+                contentPanel.revalidate();
+                contentPanel.repaint();
+            }
+            contentArea.setText(html);
             applyFontSettings(); // 确保应用字体设置
             // 设置默认文字颜色
             if (contentArea.getForeground().equals(Color.BLACK)) {
                 contentArea.setForeground(new Color(0x66, 0x66, 0x66)); // 设置为深灰色
             }
-            JBScrollPane scrollPane = new JBScrollPane(contentArea);
-            scrollPane.setBorder(JBUI.Borders.empty(5));
-            contentPanel.add(scrollPane, BorderLayout.CENTER);
-            contentPanel.revalidate();
-            contentPanel.repaint();
             // 将滚动条移动到顶部
             SwingUtilities.invokeLater(() -> {
-                scrollPane.getVerticalScrollBar().setValue(0);
+                contentScrollPane.getVerticalScrollBar().setValue(0);
             });
             updatePaginationButtons();
         }
     }
 
     /**
-     * 设置主题链接
+     * 滚动接近底部时加载并追加下一页回复
+     * 剩余内容不足一屏时触发，同一时间只追加一页
      */
-    private void setupTopicLinks() {
-        contentPanel.removeAll();
-        JPanel linksPanel = new JPanel();
-        linksPanel.setLayout(new BoxLayout(linksPanel, BoxLayout.Y_AXIS));
-
-        // 应用���体设置到链接面板
+    private void maybeAppendNextPage() {
         V2EXSettings settings = V2EXSettings.getInstance();
-        Font font = new Font(settings.fontFamily, Font.PLAIN, settings.fontSize);
-        Color textColor = settings.fontColor;
-        // 如果颜色是黑色，则使用深灰色
-        if (textColor.equals(Color.BLACK)) {
-            textColor = new Color(0x66, 0x66, 0x66);
+        ViewState current = state.get();
+        ViewState.TopicPosition position = current.topic();
+        if (!settings.infiniteScrollReplies || current.showingList() || position.loadedThroughPage() == 0
+                || (pendingAppend != null && !pendingAppend.isDone())
+                || position.loadedThroughPage() * REPLIES_PER_PAGE >= position.totalReplies()
+                || settings.apiToken.isEmpty()) {
+            return;
+        }
+        BoundedRangeModel model = contentScrollPane.getVerticalScrollBar().getModel();
+        int remaining = model.getMaximum() - model.getValue() - model.getExtent();
+        if (remaining > model.getExtent()) {
+            return;
+        }
+
+        int topicId = position.topicId();
+        int page = position.loadedThroughPage() + 1;
+        ReplyPage cached = ParsedDataCache.getInstance().getReplyPage(topicId, page);
+        CompletableFuture<ReplyPage> future = cached != null
+                ? CompletableFuture.completedFuture(cached)
+                : replyPrefetcher.take(topicId, page);
+        if (future == null) {
+            future = data.fetchReplies(topicId, page, RequestScheduler.Priority.USER);
+        }
+        pendingAppend = future;
+        future.whenComplete((replies, error) -> SwingUtilities.invokeLater(() -> {
+            // 期间切换了主题、翻页或返回列表时丢弃结果
+            if (!state.get().acceptsAppend(topicId, page)) {
+                return;
+            }
+            if (error != null) {
+                LOG.debug("追加第 " + page + " 页回复失败", error);
+                return;
+            }
+            appendReplyPage(topicId, replies);
+        }));
+    }
+
+    /**
+     * 将一页回复插入到当前文档末尾，只有新增部分需要重新布局，滚动位置保持不变
+     */
+    private void appendReplyPage(int topicId, ReplyPage replies) {
+        HTMLDocument document = (HTMLDocument) contentArea.getDocument();
+        Element body = findElement(document.getDefaultRootElement(), HTML.Tag.BODY);
+        if (body == null) {
+            return;
+        }
+        int totalPages = (state.get().topic().totalReplies() + REPLIES_PER_PAGE - 1) / REPLIES_PER_PAGE;
+        int firstReplyNumber = (replies.page - 1) * REPLIES_PER_PAGE + 1;
+        String html = TopicHtmlRenderer.getInstance().renderReplyPage(replies, totalPages, firstReplyNumber);
+        try {
+            document.insertBeforeEnd(body, html);
+        } catch (BadLocationException | IOException ex) {
+            LOG.warn("追加回复失败", ex);
+            return;
+        }
+        state.updateAndGet(s -> s.withTopic(s.topic().withLoadedThroughPage(replies.page)));
+        updatePaginationButtons();
+        prefetchAdjacentPages(topicId, replies.page);
+        // 追加后内容仍不足一屏时继续加载
+        SwingUtilities.invokeLater(this::maybeAppendNextPage);
+    }
+
+    /**
+     * 查找指定标签的元素
+     */
+    private static Element findElement(Element element, HTML.Tag tag) {
+        if (element.getAttributes().getAttribute(StyleConstants.NameAttribute) == tag) {
+            return element;
+        }
+        for (int i = 0; i < element.getElementCount(); i++) {
+            Element found = findElement(element.getElement(i), tag);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 取消正在加载的追加页
+     */
+    private void cancelPendingAppend() {
+        if (pendingAppend != null) {
+            pendingAppend.cancel(true);
+            pendingAppend = null;
         }
+        state.updateAndGet(s -> s.withTopic(s.topic().withLoadedThroughPage(0)));
+    }
 
-        for (int i = 0; i < currentTopics.size(); i++) {
-            final TopicInfo topic = currentTopics.get(i);
-            ActionListener listener = e -> showTopicContent(topic.id);
+    /**
+     * 取消正在加载的主题列表，底层请求没有其他调用方时连同连接一起取消
+     */
+    private void cancelListLoad() {
+        if (listLoad != null) {
+            listLoad.cancel(true);
+            listLoad = null;
+        }
+    }
+
+    /**
+     * 取消正在加载的主题内容，中断后台线程并取消其等待的请求
+     */
+    private void cancelTopicLoad() {
+        if (topicLoad != null) {
+            topicLoad.cancel(true);
+            topicLoad = null;
+        }
+    }
 
-            ActionLink link = new ActionLink(
-                    String.format("%d. %s [%d回复]", i + 1, topic.title, topic.replies),
-                    listener
-            );
-            link.setFont(font);
-            link.setForeground(textColor);
-            link.setAlignmentX(Component.LEFT_ALIGNMENT);
-            linksPanel.add(link);
-            linksPanel.add(Box.createVerticalStrut(5));
+    /**
+     * 在本地索引中搜索并显示结果，查询在索引线程上执行，不访问网络
+     */
+    private void search(String query) {
+        if (query.isBlank()) {
+            return;
         }
+        replyPrefetcher.cancel();
+        cancelPendingAppend();
+        cancelListLoad();
+        cancelTopicLoad();
+        state.updateAndGet(s -> s.withShowingList(false).withTopic(ViewState.TopicPosition.NONE));
+        updatePaginationButtons();
+        searchResultsView.setHits(List.of(), V2ViewerBundle.message("search.running"), "");
+        contentPanel.removeAll();
+        contentPanel.add(searchResultsView.getComponent(), BorderLayout.CENTER);
+        contentPanel.revalidate();
+        contentPanel.repaint();
 
-        JBScrollPane scrollPane = new JBScrollPane(linksPanel);
-        scrollPane.setBorder(JBUI.Borders.empty(5));
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        int seq = ++searchSeq;
+        SearchIndex.getInstance().search(query).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (seq != searchSeq || searchResultsView.getComponent().getParent() != contentPanel) {
+                return;
+            }
+            if (error != null) {
+                LOG.warn("本地搜索失败", error);
+                searchResultsView.setHits(List.of(), V2ViewerBundle.message("error.loading", error.getMessage()), "");
+                return;
+            }
+            String status = V2ViewerBundle.message("search.status", result.hits().size(),
+                    String.format("%.1f", result.micros() / 1000.0), result.docs());
+            searchResultsView.setHits(result.hits(), status, V2ViewerBundle.message("search.empty"));
+        }));
+    }
+
+    /**
+     * 显示主题列表视图，列表为空时显示 emptyText
+     */
+    private void showTopicListView(String emptyText) {
+        contentPanel.removeAll();
+        topicListView.setTopics(state.get().list().topics(), emptyText);
+        contentPanel.add(topicListView.getComponent(), BorderLayout.CENTER);
         contentPanel.revalidate();
         contentPanel.repaint();
     }
 
+    /**
+     * 预取主题，已在内存缓存中的跳过
+     */
+    private void prefetchTopic(int topicId, boolean urgent) {
+        ParsedDataCache cache = ParsedDataCache.getInstance();
+        if (!cache.contains(topicId, ParsedDataCache.TOPIC_PAGE) || !cache.contains(topicId, 1)) {
+            topicPrefetcher.enqueue(topicId, urgent);
+        }
+    }
+
     /**
      * 显示上一页
      */
     private void showPreviousPage() {
-        if (currentPage > 1) {
-            currentPage--;
-            showTopicContent(currentTopicId);
+        ViewState.TopicPosition position = state.get().topic();
+        if (position.page() > 1) {
+            showTopicContent(position.topicId(), position.page() - 1);
         }
     }
 
@@ -488,137 +811,223 @@ public class V2EXNewsPanel implements V2EXSettings.SettingsChangeListener {
      * 显示下一页
      */
     private void showNextPage() {
-        if ((currentPage * REPLIES_PER_PAGE) < totalReplies) {
-            currentPage++;
-            showTopicContent(currentTopicId);
+        // 连续阅读时从已追加的最后一页之后开始
+        ViewState.TopicPosition position = state.get().topic();
+        int lastPage = position.lastPage();
+        if ((lastPage * REPLIES_PER_PAGE) < position.totalReplies()) {
+            showTopicContent(position.topicId(), lastPage + 1);
         }
     }
 
     /**
-     * 显示主题内容
+     * 显示主题内容，同一主题保持当前页，其他主题从第一页开始
      */
     private void showTopicContent(int topicId) {
-        if (currentTopicId != topicId) {
-            currentPage = 1;
+        ViewState.TopicPosition position = state.get().topic();
+        showTopicContent(topicId, position.topicId() == topicId ? position.page() : 1);
+    }
+
+    /**
+     * 显示主题内容的指定页
+     */
+    private void showTopicContent(int topicId, int page) {
+        cancelPendingAppend();
+        cancelListLoad();
+        cancelTopicLoad();
+        ViewState previous = state.get();
+        if (previous.topic().topicId() != topicId) {
+            replyPrefetcher.cancel();
         }
-        currentTopicId = topicId;
-        isShowingList = false;
+        ViewState current = state.updateAndGet(s -> s.openTopic(topicId, page));
 
         // 显示加载状态
         showLoadingState();
 
-        // 异步加载主题内容
-        SwingWorker<String, Void> worker = new SwingWorker<>() {
+        // 异步加载主题内容，后台只读取打开时的列表快照
+        ViewState.TopicList list = current.list();
+        topicPrefetcher.beginUserLoad();
+        SwingWorker<TopicView, String> worker = new SwingWorker<>() {
             @Override
-            protected String doInBackground() throws Exception {
+            protected TopicView doInBackground() throws Exception {
                 V2EXSettings settings = V2EXSettings.getInstance();
+                TopicHtmlRenderer renderer = TopicHtmlRenderer.getInstance();
                 String token = settings.apiToken;
                 if (token.isEmpty()) {
-                    return V2ViewerBundle.message("error.no.token");
+                    return new TopicView(renderer.renderMessage(V2ViewerBundle.message("error.no.token")), -1);
                 }
 
-                OkHttpClient client = clientBuilder.proxy(getProxy(settings)).build();
+                long start = System.nanoTime();
+
+                // 优先使用内存缓存，其次是预取结果，最后并行请求主题与回复
+                ParsedDataCache cache = ParsedDataCache.getInstance();
+                Topic cachedTopic = cache.getTopic(topicId);
+                ReplyPage cachedPage = cache.getReplyPage(topicId, page);
+                TopicPrefetcher.Prefetched warmed = page == 1 && (cachedTopic == null || cachedPage == null)
+                        ? topicPrefetcher.take(topicId)
+                        : null;
+
+                CompletableFuture<Topic> topicFuture;
+                if (cachedTopic != null) {
+                    topicFuture = CompletableFuture.completedFuture(cachedTopic);
+                } else if (warmed != null) {
+                    topicFuture = warmed.topic;
+                } else {
+                    TopicSummary summary = list.find(topicId);
+                    topicFuture = summary != null ? summary.detail()
+                            : data.fetchTopic(topicId, RequestScheduler.Priority.USER);
+                }
 
-                // 获取主题内容
-                Request topicRequest = new Request.Builder()
-                        .url("https://www.v2ex.com/api/topics/show.json?id=" + topicId)
-                        .header("Authorization", "Bearer " + token)
-                        .build();
-
-                String topicContent;
-                try (Response response = client.newCall(topicRequest).execute()) {
-                    if (!response.isSuccessful()) {
-                        return V2ViewerBundle.message("error.request",
-                                response.code() + " " + response.message());
+                String source = "缓存";
+                CompletableFuture<ReplyPage> repliesFuture;
+                if (cachedPage != null) {
+                    repliesFuture = CompletableFuture.completedFuture(cachedPage);
+                } else {
+                    repliesFuture = warmed != null ? warmed.replies : replyPrefetcher.take(topicId, page);
+                    source = "预取";
+                    if (repliesFuture == null) {
+                        repliesFuture = data.fetchReplies(topicId, page, RequestScheduler.Priority.USER);
+                        source = "网络";
                     }
+                }
 
-                    JSONArray topics = new JSONArray(response.body().string());
-                    if (topics.length() == 0) {
-                        return V2ViewerBundle.message("error.topic.not.found");
+                try {
+                    return load(renderer, topicFuture, repliesFuture, source, start);
+                } finally {
+                    // 被新的导航取代时线程被中断，取消仍在进行的请求以释放连接
+                    if (isCancelled()) {
+                        topicFuture.cancel(true);
+                        repliesFuture.cancel(true);
                     }
-
-                    JSONObject topic = topics.getJSONObject(0);
-                    totalReplies = topic.getInt("replies");
-
-                    StringBuilder content = new StringBuilder();
-                    content.append(topic.getString("title")).append("\n\n");
-                    content.append(topic.getString("content")).append("\n\n");
-                    content.append("节点: ").append(topic.getJSONObject("node").getString("title")).append("\n");
-                    content.append("作者: ").append(topic.getJSONObject("member").getString("username")).append("\n");
-                    content.append("回复: ").append(totalReplies).append("\n\n");
-                    content.append("-------------------\n\n");
-                    topicContent = content.toString();
                 }
+            }
 
-                // 获取回复内容
-                Request repliesRequest = new Request.Builder()
-                        .url(String.format("https://www.v2ex.com/api/replies/show.json?topic_id=%d&p=%d",
-                                topicId, currentPage))
-                        .header("Authorization", "Bearer " + token)
-                        .build();
-
-                try (Response response = client.newCall(repliesRequest).execute()) {
-                    if (!response.isSuccessful()) {
-                        return topicContent + V2ViewerBundle.message("error.replies.failed", response.code());
+            private TopicView load(TopicHtmlRenderer renderer, CompletableFuture<Topic> topicFuture,
+                                   CompletableFuture<ReplyPage> repliesFuture, String source, long start)
+                    throws Exception {
+                // 获取主题内容
+                Topic topic;
+                try {
+                    topic = topicFuture.get();
+                    if (topic == null) {
+                        repliesFuture.cancel(true);
+                        return new TopicView(renderer.renderMessage(
+                                V2ViewerBundle.message("error.topic.not.found")), -1);
                     }
+                } catch (ExecutionException ex) {
+                    repliesFuture.cancel(true);
+                    if (ex.getCause() instanceof HttpStatusException status) {
+                        return new TopicView(renderer.renderMessage(
+                                V2ViewerBundle.message("error.request", status.getMessage())), -1);
+                    }
+                    throw ex;
+                }
+                long topicMs = elapsedMs(start);
+                int totalPages = (topic.replies + REPLIES_PER_PAGE - 1) / REPLIES_PER_PAGE;
+                int firstReplyNumber = (page - 1) * REPLIES_PER_PAGE + 1;
+
+                // 先显示主题，回复稍后填充
+                if (!repliesFuture.isDone()) {
+                    publish(renderer.renderTopic(topic, null, totalPages, firstReplyNumber,
+                            V2ViewerBundle.message("loading")));
+                }
 
-                    JSONArray replies = new JSONArray(response.body().string());
-                    StringBuilder repliesContent = new StringBuilder(topicContent);
-
-                    // 添加分页信息
-                    int totalPages = (totalReplies + REPLIES_PER_PAGE - 1) / REPLIES_PER_PAGE;
-                    repliesContent.append(V2ViewerBundle.message("page.info", currentPage, totalPages)).append("\n\n");
-
-                    // 添加回���内容
-                    for (int i = 0; i < replies.length(); i++) {
-                        JSONObject reply = replies.getJSONObject(i);
-                        repliesContent.append(String.format("#%d %s:\n",
-                                (currentPage - 1) * REPLIES_PER_PAGE + i + 1,
-                                reply.getJSONObject("member").getString("username")
-                        ));
-                        repliesContent.append(reply.getString("content")).append("\n\n");
-                        if (i < replies.length() - 1) {
-                            repliesContent.append("-------------------\n\n");
-                        }
+                // 获取回复内容
+                ReplyPage replies;
+                try {
+                    replies = repliesFuture.get();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof HttpStatusException status) {
+                        return new TopicView(renderer.renderTopic(topic, null, totalPages, firstReplyNumber,
+                                V2ViewerBundle.message("error.replies.failed", status.getCode())), topic.replies);
                     }
+                    throw ex;
+                }
+                long repliesMs = elapsedMs(start);
+
+                String html = renderer.renderTopic(topic, replies, totalPages, firstReplyNumber, null);
+                String timing = String.format("主题 %d 第 %d 页: 主题就绪 %d ms，回复就绪 %d ms（%s），渲染完成 %d ms",
+                        topicId, page, topicMs, repliesMs, source, elapsedMs(start));
+                LOG.debug(timing);
+                DebugTrace.getInstance().record("page", () -> timing);
+                return new TopicView(html, topic.replies);
+            }
 
-                    return repliesContent.toString();
+            @Override
+            protected void process(List<String> chunks) {
+                // 完整结果已就绪或已被取代时不再显示中间状态
+                if (!isDone()) {
+                    updateHtmlContent(chunks.get(chunks.size() - 1));
                 }
             }
 
             @Override
             protected void done() {
                 try {
-                    updateContent(get());
+                    if (isCancelled()) {
+                        return;
+                    }
+                    topicLoad = null;
+                    TopicView view = get();
+                    ViewState latest = state.updateAndGet(s -> s.pageShown(topicId, page, view.totalReplies()));
+                    updateHtmlContent(view.html());
+                    if (latest.topic().topicId() == topicId && latest.topic().page() == page) {
+                        updatePaginationButtons();
+                    }
+                    prefetchAdjacentPages(topicId, page);
                 } catch (Exception ex) {
                     updateContent(V2ViewerBundle.message("error.loading", ex.getMessage()));
+                } finally {
+                    topicPrefetcher.endUserLoad();
                 }
             }
         };
 
+        topicLoad = worker;
         worker.execute();
     }
 
     /**
-     * 更新分页按钮状态
+     * 主题内容的加载结果
+     *
+     * @param html         渲染好的页面
+     * @param totalReplies 总回复数，未能取得主题时为 -1
      */
-    private void updatePaginationButtons() {
-        prevButton.setEnabled(!isShowingList && currentPage > 1);
-        nextButton.setEnabled(!isShowingList && (currentPage * REPLIES_PER_PAGE) < totalReplies);
+    private record TopicView(String html, int totalReplies) {
     }
 
     /**
-     * 获取节点对应的API URL
+     * 在阅读当前页时预取相邻的回复页
      */
-    private String getNodeApiUrl() {
-        String baseUrl = "https://www.v2ex.com/api/topics/";
-        return baseUrl + switch (currentNode) {
-            case "tech" -> "show.json?node_name=tech";
-            case "creative" -> "show.json?node_name=creative";
-            case "play" -> "show.json?node_name=play";
-            case "all" -> "latest.json";
-            default -> "hot.json";
-        };
+    private void prefetchAdjacentPages(int topicId, int page) {
+        V2EXSettings settings = V2EXSettings.getInstance();
+        ViewState current = state.get();
+        if (!shown || !settings.prefetchReplyPages || current.showingList() || current.topic().topicId() != topicId) {
+            return;
+        }
+        int totalPages = (current.topic().totalReplies() + REPLIES_PER_PAGE - 1) / REPLIES_PER_PAGE;
+        ParsedDataCache cache = ParsedDataCache.getInstance();
+        replyPrefetcher.prefetchAround(topicId, page, totalPages, settings.prefetchPreviousPage,
+                p -> cache.contains(topicId, p)
+                        ? null
+                        : data.fetchReplies(topicId, p, RequestScheduler.Priority.PREFETCH));
+    }
+
+    /**
+     * 计算从起点到现在的毫秒数
+     */
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 更新分页按钮状态
+     */
+    private void updatePaginationButtons() {
+        ViewState current = state.get();
+        ViewState.TopicPosition position = current.topic();
+        prevButton.setEnabled(!current.showingList() && position.page() > 1);
+        nextButton.setEnabled(!current.showingList()
+                && (position.lastPage() * REPLIES_PER_PAGE) < position.totalReplies());
     }
 
     private void showNoTokenWarning() {
@@ -1,18 +1,27 @@
 package com.github.formattoday.v2viewer.toolWindow;
 
+import com.github.formattoday.v2viewer.diagnostics.DebugTrace;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.openapi.wm.ex.ToolWindowManagerListener;
 import com.intellij.ui.content.Content;
 import com.intellij.ui.content.ContentFactory;
 import org.jetbrains.annotations.NotNull;
 
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
 /**
  * V2EX 工具窗口工厂类
- * 负责创建和初始化工具窗口
+ * 负责创建和初始化工具窗口；面板创建时不发起网络请求，
+ * 由工具窗口的显示/隐藏驱动首次加载和后台任务的暂停
  */
 public class V2EXToolWindowFactory implements ToolWindowFactory, DumbAware {
+    private static final Logger LOG = Logger.getInstance(V2EXToolWindowFactory.class);
 
     /**
      * 创建工具窗口内容
@@ -22,6 +31,8 @@ public class V2EXToolWindowFactory implements ToolWindowFactory, DumbAware {
      */
     @Override
     public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        long start = System.nanoTime();
+
         // 创建主面板
         V2EXNewsPanel v2exPanel = new V2EXNewsPanel(project);
 
@@ -31,8 +42,27 @@ public class V2EXToolWindowFactory implements ToolWindowFactory, DumbAware {
                 "",                     // 标题（空）
                 false                   // 不允许关闭
         );
+        content.setDisposer(v2exPanel);
 
         // 将内容添加到工具窗口
         toolWindow.getContentManager().addContent(content);
+
+        // 跟随工具窗口可见性加载和暂停
+        project.getMessageBus().connect(toolWindow.getDisposable())
+                .subscribe(ToolWindowManagerListener.TOPIC, new ToolWindowManagerListener() {
+                    @Override
+                    public void stateChanged(@NotNull ToolWindowManager toolWindowManager) {
+                        v2exPanel.setShown(toolWindow.isVisible());
+                    }
+                });
+        SwingUtilities.invokeLater(() -> {
+            if (!project.isDisposed()) {
+                v2exPanel.setShown(toolWindow.isVisible());
+            }
+        });
+
+        long createMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.info(String.format("工具窗口内容创建耗时 %d ms（可见: %s）", createMs, toolWindow.isVisible()));
+        DebugTrace.getInstance().record("startup", () -> "工具窗口内容创建 " + createMs + " ms");
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * 面板视图状态
+ * 不可变快照，由面板通过 AtomicReference 发布：只在 EDT 上以新快照整体替换，
+ * 后台加载读取的是某一时刻的完整快照，不会看到修改到一半的列表或页码
+ *
+ * @param node        当前选择的节点
+ * @param list        当前显示的主题列表
+ * @param showingList 是否显示列表视图
+ * @param topic       当前打开的主题
+ */
+record ViewState(String node, TopicList list, boolean showingList, TopicPosition topic) {
+    static final ViewState INITIAL = new ViewState("hot", TopicList.EMPTY, true, TopicPosition.NONE);
+
+    ViewState withNode(String node) {
+        return new ViewState(node, list, showingList, topic);
+    }
+
+    ViewState withList(TopicList list) {
+        return new ViewState(node, list, showingList, topic);
+    }
+
+    ViewState withShowingList(boolean showingList) {
+        return new ViewState(node, list, showingList, topic);
+    }
+
+    ViewState withTopic(TopicPosition topic) {
+        return new ViewState(node, list, showingList, topic);
+    }
+
+    /**
+     * 从网络加载的列表：属于当前节点时替换列表，否则（期间切换了节点）保持不变
+     */
+    ViewState withLoadedList(TopicList loaded) {
+        return node.equals(loaded.node()) ? withList(loaded) : this;
+    }
+
+    /**
+     * 打开主题的指定页，同一主题保留已知的总回复数
+     */
+    ViewState openTopic(int topicId, int page) {
+        int knownReplies = topic.topicId() == topicId ? topic.totalReplies() : 0;
+        return new ViewState(node, list, false, new TopicPosition(topicId, page, 0, knownReplies));
+    }
+
+    /**
+     * 主题页面显示后的状态：仍是同一主题的同一页时记录总回复数和已显示到的页，否则（期间切换了主题或翻页）保持不变
+     *
+     * @param totalReplies 总回复数，小于 0 表示未能取得，沿用已知的值
+     */
+    ViewState pageShown(int topicId, int page, int totalReplies) {
+        if (topic.topicId() != topicId || topic.page() != page) {
+            return this;
+        }
+        int replies = totalReplies >= 0 ? totalReplies : topic.totalReplies();
+        return withTopic(topic.withTotalReplies(replies).withLoadedThroughPage(page));
+    }
+
+    /**
+     * 追加的回复页是否仍然有效：期间切换了主题、翻页或返回列表时丢弃
+     */
+    boolean acceptsAppend(int topicId, int page) {
+        return !showingList && topic.topicId() == topicId && topic.loadedThroughPage() == page - 1;
+    }
+
+    /**
+     * 主题列表
+     *
+     * @param node     所属节点，空列表为 null
+     * @param topics   主题列表（不可变）
+     * @param savedAt  为本地快照时的保存时间，0 表示已是最新
+     * @param loadedAt 从网络加载完成的时间，0 表示尚未加载
+     */
+    record TopicList(@Nullable String node, List<TopicSummary> topics, long savedAt, long loadedAt) {
+        static final TopicList EMPTY = new TopicList(null, List.of(), 0, 0);
+
+        TopicList {
+            topics = List.copyOf(topics);
+        }
+
+        boolean isEmpty() {
+            return topics.isEmpty();
+        }
+
+        /**
+         * 查找主题，不在列表中时返回 null
+         */
+        @Nullable TopicSummary find(int topicId) {
+            for (TopicSummary topic : topics) {
+                if (topic.id == topicId) {
+                    return topic;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 当前打开的主题
+     *
+     * @param topicId           主题ID，0 表示没有打开主题
+     * @param page              首个显示的页
+     * @param loadedThroughPage 连续阅读时已追加到的最后一页，0 表示首个页面尚未显示
+     * @param totalReplies      总回复数
+     */
+    record TopicPosition(int topicId, int page, int loadedThroughPage, int totalReplies) {
+        static final TopicPosition NONE = new TopicPosition(0, 1, 0, 0);
+
+        TopicPosition withLoadedThroughPage(int loadedThroughPage) {
+            return new TopicPosition(topicId, page, loadedThroughPage, totalReplies);
+        }
+
+        TopicPosition withTotalReplies(int totalReplies) {
+            return new TopicPosition(topicId, page, loadedThroughPage, totalReplies);
+        }
+
+        /**
+         * 已显示的最后一页
+         */
+        int lastPage() {
+            return Math.max(page, loadedThroughPage);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.formattoday.v2viewer.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 线程内存分配计量
+ * 基于 HotSpot 的线程分配计数，不支持时返回 -1
+ */
+public final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = initBean();
+
+    private AllocationMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean initBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunBean;
+        }
+        return null;
+    }
+
+    /**
+     * 当前线程累计分配的字节数
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
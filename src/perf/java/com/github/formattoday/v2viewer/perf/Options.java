@@ -0,0 +1,59 @@
+package com.github.formattoday.v2viewer.perf;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 命令行参数，格式为 --名称 值
+ */
+final class Options {
+    private final Map<String, String> values = new HashMap<>();
+
+    private Options() {
+    }
+
+    static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("参数格式应为 --名称 值: " + args[i]);
+            }
+            options.values.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    @Nullable String value(String name, @Nullable String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int intValue(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    double doubleValue(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * 逗号分隔的整数列表
+     */
+    List<Integer> intList(String name, String defaultValue) {
+        List<Integer> result = new ArrayList<>();
+        for (String part : values.getOrDefault(name, defaultValue).split(",")) {
+            result.add(Integer.parseInt(part.trim()));
+        }
+        return result;
+    }
+
+    ReplayServer.Faults faults() {
+        return new ReplayServer.Faults(intValue("latency", 0), intValue("jitter", 0),
+                doubleValue("error-rate", 0), doubleValue("rate-limit-rate", 0), intValue("budget", -1));
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.formattoday.v2viewer.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地 V2EX API 回放服务器
+ * 按请求路径和参数从录制目录返回响应；指定上游地址时先转发到上游并把响应录制下来，
+ * 没有录制也没有上游时使用 fixtures 中的样本。每个请求可注入延迟、错误和限流响应，
+ * 把插件设置中的 API 地址指向 {@link #baseUrl()} 即可在可控的网络条件下测量加载过程
+ *
+ * <pre>
+ * ./gradlew replayServer --args="--port 8099 --latency 200 --jitter 50 --error-rate 0.05"
+ * ./gradlew replayServer --args="--record https://www.v2ex.com/api/ --token xxx"
+ * </pre>
+ */
+public final class ReplayServer implements AutoCloseable {
+    private static final int RATE_LIMIT = 120;  // 每小时配额，与 V2EX API 1.0 一致
+
+    private final HttpServer server;
+    private final Path directory;                       // 录制目录
+    private final @Nullable String upstream;            // 录制模式的上游地址，以 / 结尾
+    private final @Nullable String token;               // 转发到上游时使用的 API Token
+    private final OkHttpClient client = new OkHttpClient();
+    private final Random random = new Random(42);       // 固定种子，便于复现
+    private volatile Faults faults;
+    private final AtomicInteger remaining = new AtomicInteger();  // 剩余配额
+    private volatile long resetAt;                      // 配额重置时间（秒）
+
+    // 统计
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * 注入的故障
+     *
+     * @param latencyMs       固定延迟（毫秒）
+     * @param jitterMs        在固定延迟上随机增加的最大延迟（毫秒）
+     * @param errorRate       返回 502 的比例
+     * @param rateLimitRate   返回限流 403 的比例
+     * @param rateLimitBudget 配额，用完后所有请求返回限流 403，-1 表示不限
+     */
+    public record Faults(int latencyMs, int jitterMs, double errorRate, double rateLimitRate, int rateLimitBudget) {
+        public static final Faults NONE = new Faults(0, 0, 0, 0, -1);
+
+        public Faults withLatency(int latencyMs) {
+            return new Faults(latencyMs, jitterMs, errorRate, rateLimitRate, rateLimitBudget);
+        }
+    }
+
+    /**
+     * @param port      端口，0 表示任选空闲端口
+     * @param directory 录制目录
+     * @param upstream  上游地址，不为 null 时录制没有保存过的响应
+     */
+    public ReplayServer(int port, Path directory, @Nullable String upstream, @Nullable String token,
+                        Faults faults) throws IOException {
+        this.directory = directory;
+        this.upstream = upstream == null || upstream.endsWith("/") ? upstream : upstream + "/";
+        this.token = token;
+        Files.createDirectories(directory);
+        setFaults(faults);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    /**
+     * 供插件设置和测量程序使用的 API 地址
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/";
+    }
+
+    /**
+     * 更换注入的故障，同时重置配额
+     */
+    public void setFaults(Faults faults) {
+        this.faults = faults;
+        remaining.set(faults.rateLimitBudget() >= 0 ? faults.rateLimitBudget() : RATE_LIMIT);
+        resetAt = System.currentTimeMillis() / 1000 + 3600;
+    }
+
+    public String getStats() {
+        return String.format("请求 %d，注入错误 %d，限流 %d，新录制 %d",
+                requests.get(), injectedErrors.get(), rateLimited.get(), recorded.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            Faults current = faults;
+            sleep(current.latencyMs() + (current.jitterMs() > 0 ? nextInt(current.jitterMs() + 1) : 0));
+
+            String path = exchange.getRequestURI().getRawPath().substring("/api/".length());
+            String query = exchange.getRequestURI().getRawQuery();
+            int left = remaining.decrementAndGet();
+            if (left < 0 && current.rateLimitBudget() < 0) {
+                // 不限配额时循环计数，响应头仍然随请求递减
+                remaining.set(RATE_LIMIT - 1);
+                left = RATE_LIMIT - 1;
+            }
+            if (left < 0 || nextDouble() < current.rateLimitRate()) {
+                rateLimited.incrementAndGet();
+                send(exchange, 403, 0, "{\"message\":\"Rate Limit Exceeded\"}");
+                return;
+            }
+            if (nextDouble() < current.errorRate()) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 502, left, "{\"message\":\"Injected error\"}");
+                return;
+            }
+
+            String body = load(path, query);
+            if (body == null) {
+                send(exchange, 404, left, "{\"message\":\"No recording for " + path + "\"}");
+                return;
+            }
+            send(exchange, 200, left, body);
+        }
+    }
+
+    /**
+     * 依次查找录制、上游和样本
+     */
+    private @Nullable String load(String path, @Nullable String query) throws IOException {
+        String key = path + (query == null ? "" : "?" + query);
+        Path file = directory.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+        if (Files.exists(file)) {
+            return Files.readString(file);
+        }
+        if (upstream != null) {
+            String body = fetchUpstream(key);
+            if (body != null) {
+                Files.writeString(file, body);
+                recorded.incrementAndGet();
+            }
+            return body;
+        }
+        return fixture(path, query);
+    }
+
+    private @Nullable String fetchUpstream(String key) throws IOException {
+        Request.Builder request = new Request.Builder().url(upstream + key);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try (Response response = client.newCall(request.build()).execute()) {
+            ResponseBody body = response.body();
+            return response.isSuccessful() && body != null ? body.string() : null;
+        }
+    }
+
+    /**
+     * 没有录制时使用的样本：各节点列表共用一份，主题详情改写为请求的ID
+     */
+    private static @Nullable String fixture(String path, @Nullable String query) throws IOException {
+        switch (path) {
+            case "topics/hot.json", "topics/latest.json" -> {
+                return resource("topics.json");
+            }
+            case "topics/show.json" -> {
+                String id = parameter(query, "id");
+                if (id == null) {
+                    return resource("topics.json");
+                }
+                JSONArray topics = new JSONArray(resource("topic.json"));
+                topics.getJSONObject(0).put("id", Integer.parseInt(id));
+                return topics.toString();
+            }
+            case "replies/show.json" -> {
+                return resource("replies.json");
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static @Nullable String parameter(@Nullable String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream stream = ReplayServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (stream == null) {
+                throw new IOException("样本不存在: " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, int left, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("X-Rate-Limit-Limit", String.valueOf(RATE_LIMIT));
+        exchange.getResponseHeaders().set("X-Rate-Limit-Remaining", String.valueOf(Math.max(0, left)));
+        exchange.getResponseHeaders().set("X-Rate-Limit-Reset", String.valueOf(resetAt));
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private synchronized int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * 独立运行，供 IDE 中的插件连接
+     * 参数：--port 端口 --dir 录制目录 --record 上游地址 --token API Token
+     * --latency 毫秒 --jitter 毫秒 --error-rate 比例 --rate-limit-rate 比例 --budget 配额
+     */
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        ReplayServer server = new ReplayServer(options.intValue("port", 8099),
+                Path.of(options.value("dir", "build/replay")), options.value("record", null),
+                options.value("token", null), options.faults());
+        System.out.println("回放服务器已启动: " + server.baseUrl());
+        System.out.println("在 Settings → Tools → V2EX Viewer → 调试 中把 API 地址设为上述地址，Ctrl+C 退出");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println(server.getStats());
+            server.close();
+        }));
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.formattoday.v2viewer.perf;
+
+import com.github.formattoday.v2viewer.model.ReplyPage;
+import com.github.formattoday.v2viewer.model.Topic;
+import com.github.formattoday.v2viewer.model.TopicListParser;
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import com.github.formattoday.v2viewer.network.V2EXApi;
+import com.github.formattoday.v2viewer.network.V2EXRestApi;
+import com.github.formattoday.v2viewer.render.TopicHtmlRenderer;
+import com.github.formattoday.v2viewer.render.V2EXHtmlEditorKit;
+import com.github.formattoday.v2viewer.settings.V2EXSettings;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.text.html.HTMLDocument;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首次渲染耗时测量
+ * 启动进程内的回放服务器，在每档注入延迟下重复加载列表和主题，测量从发出请求到
+ * 列表数据就绪、主题 HTML 文档构建完成的时间，按百分位输出。
+ * 请求路径与插件一致（同一个 V2EXApi，主题和第一页回复并行请求），但不经过 IDE 的调度与缓存，
+ * 反映的是网络条件本身对首次渲染的影响；插件内的完整过程可将 API 地址指向独立运行的回放服务器后查看日志
+ *
+ * <pre>
+ * ./gradlew timeToRender --args="--latency 0,50,200,500 --jitter 30 --error-rate 0.02 --iterations 50"
+ * </pre>
+ */
+public final class TimeToRenderHarness {
+    private static final int WARMUP_ITERATIONS = 5;  // 预热轮数，不计入结果
+
+    private final OkHttpClient client = new OkHttpClient.Builder()
+            .connectTimeout(30, TimeUnit.SECONDS)
+            .readTimeout(30, TimeUnit.SECONDS)
+            .build();
+    private final V2EXApi api;
+    private final V2EXSettings settings = new V2EXSettings();
+    private final TopicHtmlRenderer renderer = new TopicHtmlRenderer(() -> settings);
+    private final V2EXHtmlEditorKit kit = new V2EXHtmlEditorKit();
+
+    // 一档延迟的结果
+    private final List<Double> listMs = new ArrayList<>();
+    private final List<Double> topicMs = new ArrayList<>();
+    private int failures;       // 非限流的失败
+    private int rateLimited;    // 限流失败
+
+    private TimeToRenderHarness(String baseUrl) {
+        api = new V2EXRestApi(baseUrl, () -> "replay");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        int iterations = options.intValue("iterations", 30);
+        ReplayServer.Faults faults = options.faults();
+        try (ReplayServer server = new ReplayServer(0, Path.of(options.value("dir", "build/replay")), null, null,
+                faults)) {
+            System.out.printf("%-10s %-24s %-24s %-6s %-6s%n",
+                    "延迟 ms", "列表 p50/p90/max", "主题 p50/p90/max", "失败", "限流");
+            for (int latency : options.intList("latency", "0,50,200")) {
+                server.setFaults(faults.withLatency(latency));
+                TimeToRenderHarness harness = new TimeToRenderHarness(server.baseUrl());
+                try {
+                    harness.run(iterations);
+                } finally {
+                    harness.close();
+                }
+                System.out.printf("%-10s %-24s %-24s %-6d %-6d%n", latency + "±" + faults.jitterMs(),
+                        summary(harness.listMs), summary(harness.topicMs), harness.failures, harness.rateLimited);
+            }
+            System.out.println("回放服务器: " + server.getStats());
+        }
+    }
+
+    private void run(int iterations) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS + iterations; i++) {
+            boolean record = i >= WARMUP_ITERATIONS;
+            long start = System.nanoTime();
+            List<TopicSummary> topics = loadList();
+            if (topics == null) {
+                continue;
+            }
+            if (record) {
+                listMs.add(elapsedMs(start));
+            }
+            if (topics.isEmpty()) {
+                continue;
+            }
+            start = System.nanoTime();
+            if (renderTopic(topics.get(i % topics.size()).id) != null && record) {
+                topicMs.add(elapsedMs(start));
+            }
+        }
+    }
+
+    /**
+     * 加载并解析热门列表，失败时返回 null
+     */
+    private List<TopicSummary> loadList() throws IOException {
+        try (Response response = client.newCall(api.topicList("hot", false)).execute()) {
+            if (!countFailure(response)) {
+                return null;
+            }
+            return TopicListParser.parse(response.body().charStream(), (id, replies) -> null);
+        }
+    }
+
+    /**
+     * 并行请求主题和第一页回复，渲染并构建文档，失败时返回 null
+     */
+    private HTMLDocument renderTopic(int topicId) throws Exception {
+        CompletableFuture<String> topicBody = fetch(api.topic(topicId));
+        CompletableFuture<String> repliesBody = fetch(api.replies(topicId, 1));
+        String topicJson;
+        String repliesJson;
+        try {
+            topicJson = topicBody.join();
+            repliesJson = repliesBody.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+        if (topicJson == null || repliesJson == null) {
+            return null;
+        }
+        Topic topic = Topic.parseShow(topicJson);
+        if (topic == null) {
+            failures++;
+            return null;
+        }
+        ReplyPage replies = ReplyPage.parse(topicId, 1, repliesJson);
+        int totalPages = (topic.replies + ReplyPage.PAGE_SIZE - 1) / ReplyPage.PAGE_SIZE;
+        String html = renderer.renderTopic(topic, replies, totalPages, 1, null);
+        HTMLDocument document = (HTMLDocument) kit.createDefaultDocument();
+        kit.read(new StringReader(html), document, 0);
+        return document;
+    }
+
+    /**
+     * 异步请求，响应失败时结果为 null
+     */
+    private CompletableFuture<String> fetch(Request request) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                synchronized (TimeToRenderHarness.this) {
+                    failures++;
+                }
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                try (response) {
+                    future.complete(countFailure(response) ? response.body().string() : null);
+                } catch (IOException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 统计失败的响应，成功时返回 true
+     */
+    private synchronized boolean countFailure(Response response) {
+        if (response.isSuccessful()) {
+            return true;
+        }
+        if (response.code() == 403) {
+            rateLimited++;
+        } else {
+            failures++;
+        }
+        return false;
+    }
+
+    private void close() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    private static double elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    /**
+     * p50/p90/max
+     */
+    private static String summary(List<Double> samples) {
+        if (samples.isEmpty()) {
+            return "-";
+        }
+        List<Double> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return String.format("%.1f/%.1f/%.1f", percentile(sorted, 50), percentile(sorted, 90),
+                sorted.get(sorted.size() - 1));
+    }
+
+    private static double percentile(List<Double> sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
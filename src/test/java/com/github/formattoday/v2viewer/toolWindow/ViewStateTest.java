@@ -0,0 +1,87 @@
+package com.github.formattoday.v2viewer.toolWindow;
+
+import com.github.formattoday.v2viewer.model.TopicSummary;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按面板的操作顺序（切换节点、打开主题、翻页）推进 ViewState，验证迟到的旧结果被丢弃
+ */
+public class ViewStateTest {
+
+    @Test
+    public void staleListForPreviousNodeIsIgnored() {
+        ViewState state = ViewState.INITIAL.withNode("tech").withShowingList(true);
+
+        // 切换节点前发出的 hot 列表请求迟到
+        assertSame(state, state.withLoadedList(list("hot", 1)));
+
+        ViewState loaded = state.withLoadedList(list("tech", 2));
+        assertEquals("tech", loaded.list().node());
+        assertEquals(2, loaded.list().topics().get(0).id);
+    }
+
+    @Test
+    public void pageChangeRejectsResultsForThePreviousPage() {
+        ViewState state = ViewState.INITIAL.withNode("tech").withShowingList(true)
+                .withLoadedList(list("tech", 101));
+
+        state = state.openTopic(101, 1);
+        assertFalse(state.showingList());
+        assertEquals(0, state.topic().loadedThroughPage());
+
+        state = state.pageShown(101, 1, 250);
+        assertEquals(1, state.topic().loadedThroughPage());
+        assertEquals(250, state.topic().totalReplies());
+        assertTrue(state.acceptsAppend(101, 2));
+
+        // 追加第 2 页的请求发出后翻到第 3 页，同一主题保留已知的回复数
+        state = state.openTopic(101, 3);
+        assertEquals(250, state.topic().totalReplies());
+        assertEquals(0, state.topic().loadedThroughPage());
+        assertFalse(state.acceptsAppend(101, 2));
+        assertSame(state, state.pageShown(101, 1, 250));
+
+        state = state.pageShown(101, 3, 251);
+        assertEquals(3, state.topic().lastPage());
+        assertEquals(251, state.topic().totalReplies());
+        assertTrue(state.acceptsAppend(101, 4));
+        assertFalse(state.acceptsAppend(101, 3));
+    }
+
+    @Test
+    public void openingAnotherTopicOrReturningToListRejectsOldResults() {
+        ViewState state = ViewState.INITIAL.withNode("tech").withShowingList(true)
+                .withLoadedList(list("tech", 101))
+                .openTopic(101, 1)
+                .pageShown(101, 1, 250);
+
+        // 打开另一主题：回复数从头计算，旧主题的页面和追加结果都被丢弃
+        ViewState other = state.openTopic(202, 1);
+        assertEquals(0, other.topic().totalReplies());
+        assertSame(other, other.pageShown(101, 1, 250));
+        assertFalse(other.acceptsAppend(101, 2));
+
+        // 未能取得主题时沿用已知的回复数
+        ViewState shown = other.pageShown(202, 1, 30).openTopic(202, 1).pageShown(202, 1, -1);
+        assertEquals(30, shown.topic().totalReplies());
+
+        // 切换节点回到列表后不再追加
+        ViewState listed = shown.withNode("hot").withShowingList(true);
+        assertFalse(listed.acceptsAppend(202, 2));
+        assertSame(listed, listed.withLoadedList(list("tech", 303)));
+    }
+
+    private static ViewState.TopicList list(String node, int firstId) {
+        List<TopicSummary> topics = List.of(
+                new TopicSummary(firstId, "主题 " + firstId, 1, 0, (id, replies) -> null),
+                new TopicSummary(firstId + 1, "主题 " + (firstId + 1), 1, 0, (id, replies) -> null));
+        return new ViewState.TopicList(node, topics, 0, 1);
+    }
+}